@@ -0,0 +1,23 @@
+package com.notification.service.config;
+
+import com.notification.service.email.EmailProvider;
+import com.notification.service.email.StubEmailProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EmailProviderConfig {
+    
+    /**
+     * Used until a real provider bean is defined
+     */
+    @Bean
+    @ConditionalOnMissingBean(EmailProvider.class)
+    public EmailProvider stubEmailProvider(
+            @Value("${email.stub.request-latency-ms:100}") long requestLatencyMs,
+            @Value("${email.stub.max-batch-size:1000}") int maxBatchSize) {
+        return new StubEmailProvider(requestLatencyMs, maxBatchSize);
+    }
+}
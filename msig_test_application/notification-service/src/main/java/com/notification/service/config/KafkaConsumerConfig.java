@@ -1,5 +1,6 @@
 package com.notification.service.config;
 
+import com.notification.service.event.OrderEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -41,6 +42,11 @@ public class KafkaConsumerConfig {
         // Trust all packages for JSON deserialization
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         
+        // Type headers name the producer's class (order-service, or ours on
+        // retry topics), always map onto our OrderEvent
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, OrderEvent.class.getName());
+        
         return new DefaultKafkaConsumerFactory<>(config);
     }
     
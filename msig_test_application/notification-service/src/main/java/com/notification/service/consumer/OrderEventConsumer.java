@@ -2,10 +2,17 @@ package com.notification.service.consumer;
 
 import com.notification.service.event.OrderEvent;
 import com.notification.service.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,15 +21,34 @@ import org.springframework.stereotype.Component;
 public class OrderEventConsumer {
     
     private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
     
+    /**
+     * Failures are forwarded to order-events-retry-N with growing delays
+     * and finally to order-events-dlt, so the partition keeps moving
+     */
+    @RetryableTopic(
+        attempts = "${notification.kafka.retry.attempts:4}",
+        backoff = @Backoff(
+            delayExpression = "${notification.kafka.retry.delay-ms:1000}",
+            multiplierExpression = "${notification.kafka.retry.multiplier:5}",
+            maxDelayExpression = "${notification.kafka.retry.max-delay-ms:60000}"),
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+        listenerContainerFactory = "kafkaListenerContainerFactory"
+    )
     @KafkaListener(
         topics = "order-events",
         groupId = "notification-service-group",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumeOrderEvent(OrderEvent event, Acknowledgment ack) {
-        log.info("Consuming order event: {} for order: {}", 
-            event.getEventType(), event.getOrderId());
+    public void consumeOrderEvent(OrderEvent event, Acknowledgment ack,
+                                  @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.info("Consuming order event: {} for order: {} from {}", 
+            event.getEventType(), event.getOrderId(), topic);
+        
+        if (!"order-events".equals(topic)) {
+            meterRegistry.counter("notification.order.events.retry", "topic", topic).increment();
+        }
         
         try {
             // Process event idempotently
@@ -35,8 +61,20 @@ public class OrderEventConsumer {
             
         } catch (Exception e) {
             log.error("Error processing order event: {}", event.getOrderId(), e);
-            // Don't acknowledge - message will be redelivered
+            // Rethrow - the error handler forwards it to the next retry topic
             throw e;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Exception class, message and original offset arrive as kafka_dlt-* headers
+     */
+    @DltHandler
+    public void handleDeadLetter(OrderEvent event, Acknowledgment ack,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        log.error("Order event {} for order: {} dead-lettered: {}", 
+            event.getEventType(), event.getOrderId(), error);
+        meterRegistry.counter("notification.order.events.dlt").increment();
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,55 @@
+package com.notification.service.dispatch;
+
+import com.notification.service.model.NotificationType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sender stage settings (notification.dispatch.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.dispatch")
+public class DispatchProperties {
+    
+    // Notifications accepted but not finished, waiting or sending
+    private int capacity = 10000;
+    
+    // How long the consumer blocks for a free slot before leaving the row to the sweep
+    private long offerTimeoutMs = 1000;
+    
+    // Concurrent sends per channel
+    private Map<NotificationType, Integer> concurrency = new EnumMap<>(Map.of(
+        NotificationType.EMAIL, 64,
+        NotificationType.SMS, 32,
+        NotificationType.PUSH, 32));
+    
+    private int maxAttempts = 3;
+    
+    private long initialBackoffMs = 5000;
+    
+    private double backoffMultiplier = 2;
+    
+    // PENDING rows older than this are dispatched again by the sweep
+    private long staleAfterMs = 300000;
+    
+    private int sweepBatchSize = 500;
+    
+    private EmailBatch emailBatch = new EmailBatch();
+    
+    /**
+     * Emails sent as provider bulk requests instead of one request each
+     */
+    @Data
+    public static class EmailBatch {
+        private boolean enabled = true;
+        
+        // Capped by the provider's own limit
+        private int size = 100;
+        
+        // Longest an email waits for its batch to fill
+        private long lingerMs = 200;
+    }
+}
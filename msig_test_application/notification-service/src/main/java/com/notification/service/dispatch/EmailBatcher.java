@@ -0,0 +1,75 @@
+package com.notification.service.dispatch;
+
+import com.notification.service.model.NotificationLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups emails into provider batches, bounded by size and by time
+ *
+ * The first email of a batch starts the linger clock. The batch goes to
+ * the sink once it is full or the clock runs out, whichever comes first,
+ * so a lone email waits at most lingerMs. One collector thread fills
+ * batches; the sink is expected to hand them off, not send inline.
+ */
+public final class EmailBatcher implements AutoCloseable {
+    
+    private final BlockingQueue<NotificationLog> pending = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Consumer<List<NotificationLog>> sink;
+    private final Thread collector;
+    
+    public EmailBatcher(int batchSize, long lingerMs, Consumer<List<NotificationLog>> sink) {
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.sink = sink;
+        this.collector = Thread.ofVirtual().name("email-batcher").start(this::collect);
+    }
+    
+    public void add(NotificationLog notification) {
+        pending.add(notification);
+    }
+    
+    public int pending() {
+        return pending.size();
+    }
+    
+    private void collect() {
+        try {
+            while (true) {
+                List<NotificationLog> batch = new ArrayList<>(batchSize);
+                batch.add(pending.take());
+                long deadline = System.nanoTime() + lingerNanos;
+                
+                while (batch.size() < batchSize) {
+                    pending.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    NotificationLog next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                
+                sink.accept(batch);
+            }
+        } catch (InterruptedException e) {
+            // Closed, whatever is left stays PENDING for the sweep
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public void close() {
+        collector.interrupt();
+    }
+}
@@ -0,0 +1,384 @@
+package com.notification.service.dispatch;
+
+import com.notification.service.email.EmailMessage;
+import com.notification.service.email.EmailProvider;
+import com.notification.service.email.EmailResult;
+import com.notification.service.model.NotificationLog;
+import com.notification.service.model.NotificationStatus;
+import com.notification.service.model.NotificationType;
+import com.notification.service.repository.NotificationBatchRepository;
+import com.notification.service.repository.NotificationLogRepository;
+import com.notification.service.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sender stage between the Kafka consumers and the notification channels
+ *
+ * Consumers only persist the NotificationLog; the row is handed over here
+ * after commit and sent on a virtual thread, so a slow provider call holds
+ * neither the listener thread nor a database connection. The stage is
+ * bounded by capacity (a full stage blocks the consumer up to the offer
+ * timeout, then leaves the row PENDING) and each channel by its own
+ * concurrency limit. Failed sends are retried with backoff on the same
+ * virtual thread, without holding a channel permit while waiting.
+ * With email batching on, emails are grouped by EmailBatcher and each
+ * batch is one provider request holding one EMAIL permit; per-recipient
+ * results are written back in one JDBC batch. A failed request is retried
+ * as a whole, a recipient rejected by the provider is FAILED right away.
+ * PENDING rows left behind by a full stage or a restart are picked up by
+ * the sweep; delivery is at least once.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(DispatchProperties.class)
+public class NotificationDispatcher {
+    
+    private final NotificationLogRepository notificationRepository;
+    private final NotificationBatchRepository batchRepository;
+    private final EmailService emailService;
+    private final EmailProvider emailProvider;
+    private final DispatchProperties properties;
+    private final MeterRegistry meterRegistry;
+    
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("notification-sender-", 0).factory());
+    private final Semaphore capacity;
+    private final Map<NotificationType, Semaphore> channels = new EnumMap<>(NotificationType.class);
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final EmailBatcher emailBatcher;
+    
+    public NotificationDispatcher(
+            NotificationLogRepository notificationRepository,
+            NotificationBatchRepository batchRepository,
+            EmailService emailService,
+            EmailProvider emailProvider,
+            DispatchProperties properties,
+            MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.batchRepository = batchRepository;
+        this.emailService = emailService;
+        this.emailProvider = emailProvider;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.capacity = new Semaphore(properties.getCapacity());
+        
+        for (NotificationType type : NotificationType.values()) {
+            Semaphore permits = new Semaphore(properties.getConcurrency().getOrDefault(type, 1));
+            channels.put(type, permits);
+            Gauge.builder("notification.dispatch.sending", permits,
+                    p -> properties.getConcurrency().getOrDefault(type, 1) - p.availablePermits())
+                .tag("channel", type.name())
+                .register(meterRegistry);
+        }
+        
+        Gauge.builder("notification.dispatch.queue", queued, AtomicInteger::get)
+            .register(meterRegistry);
+        Gauge.builder("notification.dispatch.in.flight", inFlight, Set::size)
+            .register(meterRegistry);
+        this.rejected = meterRegistry.counter("notification.dispatch.rejected");
+        this.batchSizes = DistributionSummary.builder("notification.email.batch.size")
+            .register(meterRegistry);
+        
+        DispatchProperties.EmailBatch batching = properties.getEmailBatch();
+        this.emailBatcher = batching.isEnabled()
+            ? new EmailBatcher(Math.min(batching.getSize(), emailProvider.maxBatchSize()),
+                batching.getLingerMs(), batch -> senders.execute(() -> sendEmailBatch(batch)))
+            : null;
+    }
+    
+    /**
+     * Dispatch once the caller's transaction commits, right away without one
+     */
+    public void dispatchAfterCommit(NotificationLog notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(notification);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(notification);
+            }
+        });
+    }
+    
+    /**
+     * @return false if the stage stayed full for the offer timeout, the row stays PENDING
+     */
+    public boolean dispatch(NotificationLog notification) {
+        if (!inFlight.add(notification.getId())) {
+            return true;
+        }
+        
+        try {
+            if (!capacity.tryAcquire(properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                inFlight.remove(notification.getId());
+                rejected.increment();
+                log.warn("Dispatch stage full, notification {} left for the sweep", notification.getId());
+                return false;
+            }
+        } catch (InterruptedException e) {
+            inFlight.remove(notification.getId());
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        
+        queued.incrementAndGet();
+        if (emailBatcher != null && notification.getType() == NotificationType.EMAIL) {
+            emailBatcher.add(notification);
+            return true;
+        }
+        senders.execute(() -> {
+            try {
+                send(notification);
+            } finally {
+                complete(notification);
+            }
+        });
+        return true;
+    }
+    
+    /**
+     * Re-dispatch PENDING rows nobody is sending, oldest first
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatch.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(Duration.ofMillis(properties.getStaleAfterMs()));
+        int dispatched = 0;
+        for (NotificationLog notification : notificationRepository.findByStatusAndCreatedAtBeforeOrderByIdAsc(
+                NotificationStatus.PENDING, staleBefore, PageRequest.of(0, properties.getSweepBatchSize()))) {
+            if (inFlight.contains(notification.getId())) {
+                continue;
+            }
+            if (!dispatch(notification)) {
+                break;
+            }
+            dispatched++;
+        }
+        if (dispatched > 0) {
+            log.info("Sweep re-dispatched {} pending notifications", dispatched);
+        }
+    }
+    
+    private void send(NotificationLog notification) {
+        Semaphore channel = channels.get(notification.getType());
+        long backoffMs = properties.getInitialBackoffMs();
+        
+        for (int attempt = 1; ; attempt++) {
+            if (!acquire(channel, attempt == 1 ? 1 : 0)) {
+                return;
+            }
+            
+            long startedAt = System.nanoTime();
+            String error = null;
+            try {
+                deliver(notification);
+            } catch (Exception e) {
+                error = e.getMessage();
+            } finally {
+                channel.release();
+            }
+            recordLatency(notification.getType(), error == null, startedAt);
+            
+            if (error == null) {
+                notificationRepository.recordOutcome(notification.getId(), NotificationStatus.SENT,
+                    attempt - 1, null, LocalDateTime.now());
+                log.info("Notification sent successfully: {}", notification.getId());
+                return;
+            }
+            
+            log.warn("Send attempt {} failed for notification: {}: {}", 
+                attempt, notification.getId(), error);
+            if (attempt >= properties.getMaxAttempts()) {
+                notificationRepository.recordOutcome(notification.getId(), NotificationStatus.FAILED,
+                    attempt - 1, error, null);
+                log.error("Giving up notification: {} after {} attempts", notification.getId(), attempt);
+                return;
+            }
+            if (!backoff(backoffMs)) {
+                return;
+            }
+            backoffMs = (long) (backoffMs * properties.getBackoffMultiplier());
+        }
+    }
+    
+    private void sendEmailBatch(List<NotificationLog> batch) {
+        Semaphore channel = channels.get(NotificationType.EMAIL);
+        List<EmailMessage> messages = new ArrayList<>(batch.size());
+        for (NotificationLog notification : batch) {
+            messages.add(new EmailMessage(String.valueOf(notification.getId()),
+                notification.getRecipient(), notification.getSubject(), notification.getContent()));
+        }
+        batchSizes.record(batch.size());
+        long backoffMs = properties.getInitialBackoffMs();
+        
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (!acquire(channel, attempt == 1 ? batch.size() : 0)) {
+                    return;
+                }
+                
+                long startedAt = System.nanoTime();
+                List<EmailResult> results = null;
+                String error = null;
+                try {
+                    results = emailProvider.send(messages);
+                } catch (Exception e) {
+                    error = e.getMessage();
+                } finally {
+                    channel.release();
+                }
+                recordLatency(NotificationType.EMAIL, error == null, startedAt);
+                
+                if (results != null) {
+                    recordBatchOutcomes(batch, attempt - 1, results, null);
+                    return;
+                }
+                
+                log.warn("Email batch attempt {} of {} emails failed: {}", attempt, batch.size(), error);
+                if (attempt >= properties.getMaxAttempts()) {
+                    recordBatchOutcomes(batch, attempt - 1, List.of(), error);
+                    return;
+                }
+                if (!backoff(backoffMs)) {
+                    return;
+                }
+                backoffMs = (long) (backoffMs * properties.getBackoffMultiplier());
+            }
+        } finally {
+            for (NotificationLog notification : batch) {
+                complete(notification);
+            }
+        }
+    }
+    
+    /**
+     * Map per-recipient results to SENT/FAILED, written in one batch
+     * @param requestError reason for messages without a result
+     */
+    private void recordBatchOutcomes(List<NotificationLog> batch, int retryCount,
+                                     List<EmailResult> results, String requestError) {
+        Map<String, EmailResult> byMessageId = new HashMap<>(results.size() * 2);
+        for (EmailResult result : results) {
+            byMessageId.put(result.messageId(), result);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationBatchRepository.Outcome> outcomes = new ArrayList<>(batch.size());
+        int sent = 0;
+        for (NotificationLog notification : batch) {
+            EmailResult result = byMessageId.get(String.valueOf(notification.getId()));
+            if (result != null && result.accepted()) {
+                outcomes.add(new NotificationBatchRepository.Outcome(notification.getId(),
+                    NotificationStatus.SENT, retryCount, null, now));
+                sent++;
+            } else {
+                String error = result != null ? result.error()
+                    : requestError != null ? requestError : "No result from provider";
+                outcomes.add(new NotificationBatchRepository.Outcome(notification.getId(),
+                    NotificationStatus.FAILED, retryCount, error, null));
+            }
+        }
+        
+        batchRepository.recordOutcomes(outcomes);
+        log.info("Email batch of {} done: {} sent, {} failed", batch.size(), sent, batch.size() - sent);
+    }
+    
+    /**
+     * @param dequeued leaving the queue gauge with this acquire, 0 on retries
+     * @return false if interrupted, the notifications stay PENDING for the sweep
+     */
+    private boolean acquire(Semaphore channel, int dequeued) {
+        try {
+            channel.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.addAndGet(-dequeued);
+        }
+    }
+    
+    private boolean backoff(long backoffMs) {
+        try {
+            Thread.sleep(backoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void complete(NotificationLog notification) {
+        inFlight.remove(notification.getId());
+        capacity.release();
+    }
+    
+    private void deliver(NotificationLog notification) {
+        switch (notification.getType()) {
+            case EMAIL:
+                emailService.sendEmail(
+                    notification.getRecipient(),
+                    notification.getSubject(),
+                    notification.getContent()
+                );
+                break;
+                
+            case SMS:
+                // SMS implementation
+                break;
+                
+            case PUSH:
+                // Push notification implementation
+                break;
+        }
+    }
+    
+    private void recordLatency(NotificationType channel, boolean sent, long startedAt) {
+        Timer.builder("notification.send.latency")
+            .tag("channel", channel.name())
+            .tag("result", sent ? "sent" : "failed")
+            .register(meterRegistry)
+            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (emailBatcher != null) {
+            emailBatcher.close();
+        }
+        senders.shutdownNow();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,8 @@
+package com.notification.service.email;
+
+/**
+ * One email of a provider request
+ * @param messageId caller's id, echoed back in the EmailResult
+ */
+public record EmailMessage(String messageId, String recipient, String subject, String content) {
+}
@@ -0,0 +1,20 @@
+package com.notification.service.email;
+
+import java.util.List;
+
+/**
+ * Email provider API, e.g. SendGrid or SES, sending many messages per request
+ */
+public interface EmailProvider {
+    
+    /**
+     * Most messages accepted by one send call
+     */
+    int maxBatchSize();
+    
+    /**
+     * Send the messages in one provider request
+     * @return one result per message; a failure of the request as a whole is thrown
+     */
+    List<EmailResult> send(List<EmailMessage> messages);
+}
@@ -0,0 +1,15 @@
+package com.notification.service.email;
+
+/**
+ * Provider verdict for one message of a request
+ */
+public record EmailResult(String messageId, boolean accepted, String error) {
+    
+    public static EmailResult accepted(String messageId) {
+        return new EmailResult(messageId, true, null);
+    }
+    
+    public static EmailResult rejected(String messageId, String error) {
+        return new EmailResult(messageId, false, error);
+    }
+}
@@ -0,0 +1,58 @@
+package com.notification.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for a real provider
+ *
+ * Costs one simulated round trip per request, whatever the number of
+ * messages, and rejects recipients without a local part and a domain.
+ */
+@Slf4j
+public class StubEmailProvider implements EmailProvider {
+    
+    private final long requestLatencyMs;
+    private final int maxBatchSize;
+    
+    public StubEmailProvider(long requestLatencyMs, int maxBatchSize) {
+        this.requestLatencyMs = requestLatencyMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+    
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+    
+    @Override
+    public List<EmailResult> send(List<EmailMessage> messages) {
+        if (messages.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Batch of " + messages.size() + " exceeds provider limit " + maxBatchSize);
+        }
+        
+        // Simulate the network call
+        try {
+            Thread.sleep(requestLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Email sending interrupted", e);
+        }
+        
+        List<EmailResult> results = new ArrayList<>(messages.size());
+        for (EmailMessage message : messages) {
+            String recipient = message.recipient();
+            int at = recipient != null ? recipient.indexOf('@') : -1;
+            if (at <= 0 || at == recipient.length() - 1) {
+                results.add(EmailResult.rejected(message.messageId(), "Invalid recipient: " + recipient));
+            } else {
+                results.add(EmailResult.accepted(message.messageId()));
+            }
+        }
+        log.debug("Stub provider accepted request of {} emails", messages.size());
+        return results;
+    }
+}
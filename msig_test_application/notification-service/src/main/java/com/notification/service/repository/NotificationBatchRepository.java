@@ -0,0 +1,41 @@
+package com.notification.service.repository;
+
+import com.notification.service.model.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched writes for the dispatch stage, as plain JDBC batches
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public record Outcome(Long id, NotificationStatus status, int retryCount, 
+                          String errorMessage, LocalDateTime sentAt) {
+    }
+    
+    /**
+     * NotificationLogRepository.recordOutcome for many rows, in one JDBC batch
+     */
+    public void recordOutcomes(List<Outcome> outcomes) {
+        jdbcTemplate.batchUpdate("""
+            UPDATE notification_logs
+            SET status = ?, error_message = ?, retry_count = ?, sent_at = ?
+            WHERE id = ?
+            """, outcomes, outcomes.size(), (ps, outcome) -> {
+                ps.setString(1, outcome.status().name());
+                ps.setString(2, outcome.errorMessage());
+                ps.setInt(3, outcome.retryCount());
+                ps.setTimestamp(4, outcome.sentAt() != null ? Timestamp.valueOf(outcome.sentAt()) : null);
+                ps.setLong(5, outcome.id());
+            });
+    }
+}
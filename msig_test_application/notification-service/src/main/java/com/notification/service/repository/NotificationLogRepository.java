@@ -2,9 +2,14 @@ package com.notification.service.repository;
 
 import com.notification.service.model.NotificationLog;
 import com.notification.service.model.NotificationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,23 @@ public interface NotificationLogRepository extends JpaRepository<NotificationLog
     
     List<NotificationLog> findByStatusAndRetryCountLessThan(
         NotificationStatus status, Integer maxRetries);
-}
\ No newline at end of file
+    
+    List<NotificationLog> findByStatusAndCreatedAtBeforeOrderByIdAsc(
+        NotificationStatus status, LocalDateTime createdBefore, Pageable pageable);
+    
+    /**
+     * Record a send outcome with one UPDATE, without reading the row first
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE NotificationLog n
+        SET n.status = :status,
+            n.errorMessage = :errorMessage,
+            n.retryCount = :retryCount,
+            n.sentAt = :sentAt
+        WHERE n.id = :id
+        """)
+    int recordOutcome(Long id, NotificationStatus status, int retryCount, 
+                      String errorMessage, LocalDateTime sentAt);
+}
@@ -1,32 +1,36 @@
 package com.notification.service.service;
 
+import com.notification.service.email.EmailMessage;
+import com.notification.service.email.EmailProvider;
+import com.notification.service.email.EmailResult;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.UUID;
+
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EmailService {
     
+    private final EmailProvider emailProvider;
+    
     /**
-     * Send email via external service (e.g., SendGrid, SES)
+     * Send one email as its own provider request
+     * Batched sends go through EmailBatcher instead
      */
     public void sendEmail(String recipient, String subject, String content) {
         log.info("Sending email to: {}", recipient);
         log.info("Subject: {}", subject);
-        log.info("Content: {}", content);
-        
-        // In real implementation:
-        // - Call SendGrid/AWS SES/other email service
-        // - Handle timeouts and retries
-        // - Validate recipient email
+        log.debug("Content: {}", content);
         
-        // Simulate email sending
-        try {
-            Thread.sleep(100); // Simulate network call
-            log.info("Email sent successfully to: {}", recipient);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Email sending interrupted", e);
+        EmailMessage message = new EmailMessage(UUID.randomUUID().toString(), recipient, subject, content);
+        EmailResult result = emailProvider.send(List.of(message)).get(0);
+        if (!result.accepted()) {
+            throw new RuntimeException("Email rejected: " + result.error());
         }
+        log.info("Email sent successfully to: {}", recipient);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.notification.service.template;
+
+import com.notification.service.event.OrderEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template parsed once into alternating literal and variable segments
+ *
+ * literals[0] variables[0] literals[1] ... variables[n-1] literals[n].
+ * Rendering appends the segments in order into a per-thread buffer, so
+ * there is no pattern parsing at send time and the only allocation is the
+ * resulting String.
+ */
+public final class CompiledTemplate {
+    
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int VARIABLE_ESTIMATE = 24;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    
+    private static final ThreadLocal<StringBuilder> BUFFER = 
+        ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    
+    private final String[] literals;
+    private final TemplateVariable[] variables;
+    private final int estimatedLength;
+    
+    private CompiledTemplate(String[] literals, TemplateVariable[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = variables.length * VARIABLE_ESTIMATE;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length;
+    }
+    
+    /**
+     * @throws IllegalArgumentException for an unclosed or unknown placeholder
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<TemplateVariable> variables = new ArrayList<>();
+        
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(TemplateVariable.forPlaceholder(source.substring(open + OPEN.length(), close).trim()));
+            position = close + CLOSE.length();
+        }
+        
+        return new CompiledTemplate(literals.toArray(new String[0]), variables.toArray(new TemplateVariable[0]));
+    }
+    
+    public String render(OrderEvent event) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(estimatedLength);
+        renderTo(event, buffer);
+        String rendered = buffer.toString();
+        
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            // Do not keep one oversized render alive on every thread
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+    
+    public void renderTo(OrderEvent event, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(variables[i].valueOf(event));
+            out.append(literals[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.notification.service.template;
+
+/**
+ * Compiled subject and body of one event type in one locale
+ */
+public record NotificationTemplate(String key, CompiledTemplate subject, CompiledTemplate body) {
+}
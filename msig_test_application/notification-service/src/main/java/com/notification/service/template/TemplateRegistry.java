@@ -0,0 +1,184 @@
+package com.notification.service.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compiled notification templates by event type and locale
+ *
+ * Templates are files named {EVENT_TYPE}_{locale}.txt, e.g. ORDER_PAID_en.txt
+ * or ORDER_PAID_pt-BR.txt. The first line is "Subject: ...", then a blank
+ * line, then the body. The bundled classpath:templates/ set is overlaid by
+ * the files of notification.templates.dir, which is polled for changes; a
+ * change recompiles the whole set and swaps it in at once. A set that does
+ * not compile is rejected and the previous one stays live.
+ */
+@Component
+@Slf4j
+public class TemplateRegistry {
+    
+    private static final String BUNDLED = "classpath*:templates/*.txt";
+    private static final String SUFFIX = ".txt";
+    private static final String SUBJECT_PREFIX = "Subject:";
+    
+    private final String dir;
+    private final Locale defaultLocale;
+    
+    private volatile Map<String, NotificationTemplate> templates = Map.of();
+    private volatile long fingerprint;
+    
+    public TemplateRegistry(
+            @Value("${notification.templates.dir:}") String dir,
+            @Value("${notification.templates.default-locale:en}") String defaultLocale) {
+        this.dir = dir;
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+    }
+    
+    @PostConstruct
+    public void load() throws IOException {
+        if (!dir.isBlank() && externalDir() == null) {
+            log.warn("Template directory {} does not exist yet, using bundled templates", dir);
+        }
+        long current = fingerprint();
+        templates = loadAll();
+        fingerprint = current;
+        log.info("Loaded {} notification templates", templates.size());
+    }
+    
+    /**
+     * Template for the exact locale, then its language, then the default locale
+     * @return null if the event type has no template
+     */
+    public NotificationTemplate find(String eventType, Locale locale) {
+        Map<String, NotificationTemplate> current = templates;
+        NotificationTemplate template = current.get(key(eventType, locale.toLanguageTag()));
+        if (template == null) {
+            template = current.get(key(eventType, locale.getLanguage()));
+        }
+        if (template == null) {
+            template = current.get(key(eventType, defaultLocale.toLanguageTag()));
+        }
+        return template;
+    }
+    
+    public Locale defaultLocale() {
+        return defaultLocale;
+    }
+    
+    @Scheduled(fixedDelayString = "${notification.templates.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (dir.isBlank()) {
+            return;
+        }
+        try {
+            long current = fingerprint();
+            if (current == fingerprint) {
+                return;
+            }
+            // Taken first, so a broken set is reported once per change, not on every poll
+            fingerprint = current;
+            templates = loadAll();
+            log.info("Reloaded {} notification templates from {}", templates.size(), dir);
+        } catch (IOException | RuntimeException e) {
+            log.error("Template reload from {} failed, keeping the previous set", dir, e);
+        }
+    }
+    
+    private Map<String, NotificationTemplate> loadAll() throws IOException {
+        Map<String, NotificationTemplate> loaded = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(BUNDLED)) {
+            String name = resource.getFilename();
+            String source = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            put(loaded, name, source);
+        }
+        
+        Path directory = externalDir();
+        if (directory != null) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(SUFFIX) && Files.isRegularFile(file)) {
+                        put(loaded, name, Files.readString(file, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        return Map.copyOf(loaded);
+    }
+    
+    private void put(Map<String, NotificationTemplate> loaded, String fileName, String source) {
+        String key = fileName.substring(0, fileName.length() - SUFFIX.length());
+        if (key.lastIndexOf('_') <= 0) {
+            throw new IllegalArgumentException("Template " + fileName + " is not named {EVENT_TYPE}_{locale}.txt");
+        }
+        try {
+            loaded.put(key, parse(key, source));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Template " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private NotificationTemplate parse(String key, String source) {
+        int lineEnd = source.indexOf('\n');
+        String firstLine = (lineEnd < 0 ? source : source.substring(0, lineEnd)).strip();
+        if (!firstLine.startsWith(SUBJECT_PREFIX)) {
+            throw new IllegalArgumentException("first line must be \"" + SUBJECT_PREFIX + " ...\"");
+        }
+        
+        String body = lineEnd < 0 ? "" : source.substring(lineEnd + 1);
+        if (body.startsWith("\r\n")) {
+            body = body.substring(2);
+        } else if (body.startsWith("\n")) {
+            body = body.substring(1);
+        }
+        
+        return new NotificationTemplate(key,
+            CompiledTemplate.compile(firstLine.substring(SUBJECT_PREFIX.length()).strip()),
+            CompiledTemplate.compile(body));
+    }
+    
+    /**
+     * Changes with any file added, removed, resized or touched in the external directory
+     */
+    private long fingerprint() throws IOException {
+        Path directory = externalDir();
+        if (directory == null) {
+            return 0;
+        }
+        long hash = 1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+                hash = 31 * hash + file.getFileName().toString().hashCode();
+                hash = 31 * hash + Files.getLastModifiedTime(file).toMillis();
+                hash = 31 * hash + Files.size(file);
+            }
+        }
+        return hash;
+    }
+    
+    private Path externalDir() {
+        if (dir.isBlank()) {
+            return null;
+        }
+        Path directory = Path.of(dir);
+        return Files.isDirectory(directory) ? directory : null;
+    }
+    
+    private static String key(String eventType, String locale) {
+        return eventType + "_" + locale;
+    }
+}
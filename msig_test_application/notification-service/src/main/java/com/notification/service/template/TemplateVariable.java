@@ -0,0 +1,41 @@
+package com.notification.service.template;
+
+import com.notification.service.event.OrderEvent;
+
+import java.util.function.Function;
+
+/**
+ * Placeholders a template may use, written as {{name}}
+ */
+public enum TemplateVariable {
+    ORDER_ID("orderId", OrderEvent::getOrderId),
+    USER_ID("userId", OrderEvent::getUserId),
+    EVENT_TYPE("eventType", OrderEvent::getEventType),
+    TOTAL_AMOUNT("totalAmount", OrderEvent::getTotalAmount),
+    CURRENCY("currency", OrderEvent::getCurrency);
+    
+    private final String placeholder;
+    private final Function<OrderEvent, Object> accessor;
+    
+    TemplateVariable(String placeholder, Function<OrderEvent, Object> accessor) {
+        this.placeholder = placeholder;
+        this.accessor = accessor;
+    }
+    
+    public String placeholder() {
+        return placeholder;
+    }
+    
+    Object valueOf(OrderEvent event) {
+        return accessor.apply(event);
+    }
+    
+    static TemplateVariable forPlaceholder(String name) {
+        for (TemplateVariable variable : values()) {
+            if (variable.placeholder.equals(name)) {
+                return variable;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template variable: {{" + name + "}}");
+    }
+}
@@ -0,0 +1,126 @@
+package com.notification.service.benchmark;
+
+import com.notification.service.dispatch.EmailBatcher;
+import com.notification.service.email.EmailMessage;
+import com.notification.service.email.EmailProvider;
+import com.notification.service.email.StubEmailProvider;
+import com.notification.service.model.NotificationLog;
+import com.notification.service.model.NotificationStatus;
+import com.notification.service.model.NotificationType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to send a burst of emails through the stub provider, one request
+ * per email versus EmailBatcher batches, with the same EMAIL concurrency
+ * limit. The stub's request latency stands in for the provider round trip.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.notification.service.benchmark.EmailBatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class EmailBatchingBenchmark {
+    
+    private static final int EMAILS = 1000;
+    private static final int CONCURRENCY = 16;
+    
+    @Param({"5", "20"})
+    private long requestLatencyMs;
+    
+    @Param({"100"})
+    private int batchSize;
+    
+    private EmailProvider provider;
+    private ExecutorService senders;
+    private Semaphore channel;
+    private List<NotificationLog> notifications;
+    
+    @Setup
+    public void setup() {
+        provider = new StubEmailProvider(requestLatencyMs, 1000);
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        channel = new Semaphore(CONCURRENCY);
+        notifications = new ArrayList<>(EMAILS);
+        for (long i = 0; i < EMAILS; i++) {
+            notifications.add(NotificationLog.builder()
+                .id(i)
+                .eventId("ORDER_PAID-ORD-" + i)
+                .userId("user-" + i)
+                .type(NotificationType.EMAIL)
+                .recipient("user-" + i + "@example.com")
+                .subject("Order Confirmed - ORD-" + i)
+                .content("Your order ORD-" + i + " has been confirmed!")
+                .status(NotificationStatus.PENDING)
+                .retryCount(0)
+                .build());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        senders.shutdownNow();
+    }
+    
+    @Benchmark
+    public void oneRequestPerEmail() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(EMAILS);
+        for (NotificationLog notification : notifications) {
+            senders.execute(() -> {
+                send(List.of(notification));
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+    
+    @Benchmark
+    public void batched() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(EMAILS);
+        try (EmailBatcher batcher = new EmailBatcher(batchSize, 200, batch -> senders.execute(() -> {
+            send(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                done.countDown();
+            }
+        }))) {
+            for (NotificationLog notification : notifications) {
+                batcher.add(notification);
+            }
+            done.await();
+        }
+    }
+    
+    private void send(List<NotificationLog> batch) {
+        List<EmailMessage> messages = new ArrayList<>(batch.size());
+        for (NotificationLog notification : batch) {
+            messages.add(new EmailMessage(String.valueOf(notification.getId()),
+                notification.getRecipient(), notification.getSubject(), notification.getContent()));
+        }
+        channel.acquireUninterruptibly();
+        try {
+            provider.send(messages);
+        } finally {
+            channel.release();
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(EmailBatchingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.notification.service.benchmark;
+
+import com.notification.service.event.OrderEvent;
+import com.notification.service.template.NotificationTemplate;
+import com.notification.service.template.TemplateRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ORDER_PAID subject and body: compiled template versus the String.format
+ * text block and concatenation it replaced
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.notification.service.benchmark.TemplateRenderBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    
+    private OrderEvent event;
+    private NotificationTemplate template;
+    
+    @Setup
+    public void setup() throws Exception {
+        event = OrderEvent.builder()
+            .orderId("ORD-3f6c1a2e-8b4d-4e7f-9a10-5c2d7e8f9b01")
+            .userId("user-42")
+            .eventType("ORDER_PAID")
+            .totalAmount(new BigDecimal("1249.90"))
+            .currency("USD")
+            .timestamp(1760000000000L)
+            .build();
+        
+        TemplateRegistry registry = new TemplateRegistry("", "en");
+        registry.load();
+        template = registry.find("ORDER_PAID", Locale.ENGLISH);
+        
+        if (!template.body().render(event).equals(formatContent(event))
+                || !template.subject().render(event).equals(formatSubject(event))) {
+            throw new IllegalStateException("Template output differs from String.format output");
+        }
+    }
+    
+    @Benchmark
+    public int stringFormat() {
+        return formatSubject(event).length() + formatContent(event).length();
+    }
+    
+    @Benchmark
+    public int compiledTemplate() {
+        return template.subject().render(event).length() + template.body().render(event).length();
+    }
+    
+    private static String formatSubject(OrderEvent event) {
+        return "Order Confirmed - " + event.getOrderId();
+    }
+    
+    // As NotificationService built it before templates
+    private static String formatContent(OrderEvent event) {
+        return String.format("""
+            Dear Customer,
+            
+            Your order %s has been confirmed!
+            
+            Order Details:
+            - Order ID: %s
+            - Amount: %s %s
+            
+            Thank you for your purchase!
+            
+            Best regards,
+            Your Store
+            """,
+            event.getOrderId(),
+            event.getOrderId(),
+            event.getTotalAmount(),
+            event.getCurrency()
+        );
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TemplateRenderBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,73 @@
+package com.notification.service.dispatch;
+
+import com.notification.service.model.NotificationLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailBatcherTest {
+
+    private static final long WAIT_MS = 5000;
+
+    private final BlockingQueue<List<NotificationLog>> batches = new LinkedBlockingQueue<>();
+
+    @Test
+    void fullBatchGoesOutWithoutWaitingForTheLinger() throws InterruptedException {
+        try (EmailBatcher batcher = new EmailBatcher(3, 60_000, batches::add)) {
+            for (long id = 1; id <= 7; id++) {
+                batcher.add(email(id));
+            }
+
+            assertThat(ids(batches.poll(WAIT_MS, TimeUnit.MILLISECONDS))).containsExactly(1L, 2L, 3L);
+            assertThat(ids(batches.poll(WAIT_MS, TimeUnit.MILLISECONDS))).containsExactly(4L, 5L, 6L);
+            // The 7th is short of a full batch and lingers
+            assertThat(batches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        }
+    }
+
+    @Test
+    void partialBatchGoesOutOnceTheLingerRunsOut() throws InterruptedException {
+        try (EmailBatcher batcher = new EmailBatcher(100, 100, batches::add)) {
+            long startedAt = System.nanoTime();
+            batcher.add(email(1L));
+            batcher.add(email(2L));
+
+            List<NotificationLog> batch = batches.poll(WAIT_MS, TimeUnit.MILLISECONDS);
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            assertThat(ids(batch)).containsExactly(1L, 2L);
+            assertThat(waitedMs).isGreaterThanOrEqualTo(100);
+            assertThat(batcher.pending()).isZero();
+        }
+    }
+
+    @Test
+    void lingerClockStartsWithTheFirstEmailOfEachBatch() throws InterruptedException {
+        try (EmailBatcher batcher = new EmailBatcher(100, 100, batches::add)) {
+            batcher.add(email(1L));
+            assertThat(ids(batches.poll(WAIT_MS, TimeUnit.MILLISECONDS))).containsExactly(1L);
+
+            // Idle time before the next email does not count against its linger
+            Thread.sleep(150);
+            long startedAt = System.nanoTime();
+            batcher.add(email(2L));
+
+            assertThat(ids(batches.poll(WAIT_MS, TimeUnit.MILLISECONDS))).containsExactly(2L);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(100);
+        }
+    }
+
+    private static List<Long> ids(List<NotificationLog> batch) {
+        assertThat(batch).isNotNull();
+        return batch.stream().map(NotificationLog::getId).toList();
+    }
+
+    private static NotificationLog email(Long id) {
+        return NotificationLog.builder().id(id).recipient("user" + id + "@example.com").build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.notification.service.dispatch;
+
+import com.notification.service.email.EmailProvider;
+import com.notification.service.email.EmailResult;
+import com.notification.service.model.NotificationLog;
+import com.notification.service.model.NotificationStatus;
+import com.notification.service.model.NotificationType;
+import com.notification.service.repository.NotificationBatchRepository;
+import com.notification.service.repository.NotificationLogRepository;
+import com.notification.service.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private static final long WAIT_MS = 5000;
+
+    private final NotificationLogRepository notificationRepository = mock(NotificationLogRepository.class);
+    private final NotificationBatchRepository batchRepository = mock(NotificationBatchRepository.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final EmailProvider emailProvider = mock(EmailProvider.class);
+    private final List<NotificationDispatcher> dispatchers = new ArrayList<>();
+    // One slot, so a second dispatch only gets in once the first released it
+    private final NotificationDispatcher dispatcher = dispatcher(1, false);
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        for (NotificationDispatcher started : dispatchers) {
+            started.shutdown();
+        }
+    }
+
+    @Test
+    void failedSendReleasesItsSlotAfterGivingUp() {
+        doThrow(new RuntimeException("provider down"))
+            .when(emailService).sendEmail(eq("a@example.com"), anyString(), anyString());
+
+        assertThat(dispatcher.dispatch(email(1L, "a@example.com"))).isTrue();
+
+        verify(emailService, timeout(WAIT_MS).times(2)).sendEmail(eq("a@example.com"), anyString(), anyString());
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(1L, NotificationStatus.FAILED, 1, "provider down", null);
+
+        assertThat(dispatcher.dispatch(email(2L, "b@example.com"))).isTrue();
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(eq(2L), eq(NotificationStatus.SENT), eq(0), isNull(), any());
+    }
+
+    @Test
+    void retriedSendLeavesNothingInFlight() {
+        doThrow(new RuntimeException("timeout"))
+            .doNothing()
+            .when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+        NotificationLog notification = email(1L, "a@example.com");
+        assertThat(dispatcher.dispatch(notification)).isTrue();
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(eq(1L), eq(NotificationStatus.SENT), eq(1), isNull(), any());
+
+        // Waits for the only slot, which the retried send frees after leaving the in-flight set
+        assertThat(dispatcher.dispatch(email(2L, "b@example.com"))).isTrue();
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(eq(2L), eq(NotificationStatus.SENT), eq(0), isNull(), any());
+
+        // A row the sweep picks up again is sent again, not skipped as still in flight
+        assertThat(dispatcher.dispatch(notification)).isTrue();
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(eq(1L), eq(NotificationStatus.SENT), eq(0), isNull(), any());
+    }
+
+    @Test
+    void duplicateDispatchWhileInFlightIsNotSentTwice() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(emailService).sendEmail(anyString(), anyString(), anyString());
+
+        NotificationLog notification = email(1L, "a@example.com");
+        assertThat(dispatcher.dispatch(notification)).isTrue();
+        assertThat(sending.await(WAIT_MS, TimeUnit.MILLISECONDS)).isTrue();
+
+        // Accepted without taking the only slot, the first send still holds it
+        assertThat(dispatcher.dispatch(notification)).isTrue();
+        release.countDown();
+
+        verify(notificationRepository, timeout(WAIT_MS))
+            .recordOutcome(eq(1L), eq(NotificationStatus.SENT), eq(0), isNull(), any());
+        verify(emailService).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchResultsMapToSentAndFailedPerRecipient() {
+        when(emailProvider.send(anyList())).thenReturn(List.of(
+            EmailResult.accepted("1"),
+            EmailResult.rejected("2", "Invalid recipient: b")));
+        NotificationDispatcher batching = dispatcher(3, true);
+
+        batching.dispatch(email(1L, "a@example.com"));
+        batching.dispatch(email(2L, "b"));
+        batching.dispatch(email(3L, "c@example.com"));
+
+        ArgumentCaptor<List<NotificationBatchRepository.Outcome>> outcomes = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, timeout(WAIT_MS)).recordOutcomes(outcomes.capture());
+        verify(emailProvider).send(anyList());
+        verifyNoInteractions(emailService);
+
+        assertThat(outcomes.getValue())
+            .extracting(NotificationBatchRepository.Outcome::id, NotificationBatchRepository.Outcome::status,
+                NotificationBatchRepository.Outcome::retryCount, NotificationBatchRepository.Outcome::errorMessage)
+            .containsExactly(
+                tuple(1L, NotificationStatus.SENT, 0, null),
+                tuple(2L, NotificationStatus.FAILED, 0, "Invalid recipient: b"),
+                tuple(3L, NotificationStatus.FAILED, 0, "No result from provider"));
+        assertThat(outcomes.getValue().get(0).sentAt()).isNotNull();
+        assertThat(outcomes.getValue().get(1).sentAt()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchRequestIsRetriedWholeThenFailsEveryRecipient() {
+        when(emailProvider.send(anyList())).thenThrow(new RuntimeException("503 from provider"));
+        NotificationDispatcher batching = dispatcher(2, true);
+
+        batching.dispatch(email(1L, "a@example.com"));
+        batching.dispatch(email(2L, "b@example.com"));
+
+        ArgumentCaptor<List<NotificationBatchRepository.Outcome>> outcomes = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, timeout(WAIT_MS)).recordOutcomes(outcomes.capture());
+        verify(emailProvider, times(2)).send(anyList());
+
+        assertThat(outcomes.getValue())
+            .extracting(NotificationBatchRepository.Outcome::id, NotificationBatchRepository.Outcome::status,
+                NotificationBatchRepository.Outcome::retryCount, NotificationBatchRepository.Outcome::errorMessage)
+            .containsExactly(
+                tuple(1L, NotificationStatus.FAILED, 1, "503 from provider"),
+                tuple(2L, NotificationStatus.FAILED, 1, "503 from provider"));
+    }
+
+    /**
+     * @param capacity dispatch slots; with batching, the batch size as well
+     */
+    private NotificationDispatcher dispatcher(int capacity, boolean batching) {
+        DispatchProperties properties = new DispatchProperties();
+        properties.setCapacity(capacity);
+        properties.setOfferTimeoutMs(WAIT_MS);
+        properties.setMaxAttempts(2);
+        properties.setInitialBackoffMs(1);
+        properties.getEmailBatch().setEnabled(batching);
+        properties.getEmailBatch().setSize(capacity);
+        properties.getEmailBatch().setLingerMs(60_000);
+        when(emailProvider.maxBatchSize()).thenReturn(100);
+        NotificationDispatcher started = new NotificationDispatcher(notificationRepository, batchRepository,
+            emailService, emailProvider, properties, new SimpleMeterRegistry());
+        dispatchers.add(started);
+        return started;
+    }
+
+    private static NotificationLog email(Long id, String recipient) {
+        return NotificationLog.builder()
+            .id(id)
+            .eventId("evt-" + id)
+            .userId("user-" + id)
+            .type(NotificationType.EMAIL)
+            .recipient(recipient)
+            .subject("Subject")
+            .content("Body")
+            .status(NotificationStatus.PENDING)
+            .retryCount(0)
+            .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.notification.service.template;
+
+import com.notification.service.event.OrderEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+    private final OrderEvent event = OrderEvent.builder()
+        .orderId("ORD-1")
+        .userId("user-1")
+        .eventType("ORDER_PAID")
+        .totalAmount(new BigDecimal("12.50"))
+        .currency("EUR")
+        .build();
+
+    @Test
+    void rendersLiteralsAndVariablesInOrder() {
+        CompiledTemplate template = CompiledTemplate.compile("Order {{orderId}}: {{ totalAmount }} {{currency}}.");
+
+        assertThat(template.render(event)).isEqualTo("Order ORD-1: 12.50 EUR.");
+    }
+
+    @Test
+    void rendersTemplateWithoutPlaceholdersAsIs() {
+        assertThat(CompiledTemplate.compile("Thank you!").render(event)).isEqualTo("Thank you!");
+        assertThat(CompiledTemplate.compile("").render(event)).isEmpty();
+    }
+
+    @Test
+    void rejectsUnclosedPlaceholder() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("Order {{orderId}} for {{userId"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unclosed placeholder at offset 22");
+    }
+
+    @Test
+    void rejectsUnknownPlaceholder() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("Hello {{customerName}}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unknown template variable: {{customerName}}");
+    }
+}
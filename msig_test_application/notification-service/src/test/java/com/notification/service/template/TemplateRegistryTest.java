@@ -0,0 +1,82 @@
+package com.notification.service.template;
+
+import com.notification.service.event.OrderEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateRegistryTest {
+
+    private final OrderEvent event = OrderEvent.builder().orderId("ORD-1").build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void externalTemplatesOverlayTheBundledSet() throws IOException {
+        write("ORDER_PAID_en.txt", "Subject: Paid {{orderId}}\n\nThanks");
+        write("ORDER_PAID_pt-BR.txt", "Subject: Pago {{orderId}}\n\nObrigado");
+        TemplateRegistry registry = registry();
+
+        assertThat(subject(registry, Locale.ENGLISH)).isEqualTo("Paid ORD-1");
+        assertThat(subject(registry, Locale.forLanguageTag("pt-BR"))).isEqualTo("Pago ORD-1");
+        // No template for the locale or its language, falls back to the default locale
+        assertThat(subject(registry, Locale.FRENCH)).isEqualTo("Paid ORD-1");
+        // Bundled template not overridden by the directory
+        assertThat(registry.find("ORDER_PAYMENT_FAILED", Locale.ENGLISH)).isNotNull();
+    }
+
+    @Test
+    void brokenReloadKeepsThePreviousSet() throws IOException {
+        write("ORDER_PAID_en.txt", "Subject: Paid {{orderId}}\n\nThanks");
+        TemplateRegistry registry = registry();
+
+        write("ORDER_PAID_en.txt", "Subject: Paid {{orderId\n\nThanks");
+        registry.reloadIfChanged();
+        assertThat(subject(registry, Locale.ENGLISH)).isEqualTo("Paid ORD-1");
+
+        write("ORDER_PAID_en.txt", "Subject: Your order {{orderId}} is paid\n\nThanks");
+        registry.reloadIfChanged();
+        assertThat(subject(registry, Locale.ENGLISH)).isEqualTo("Your order ORD-1 is paid");
+    }
+
+    @Test
+    void unknownPlaceholderFailsTheInitialLoad() throws IOException {
+        write("ORDER_PAID_en.txt", "Subject: Paid {{orderNumber}}\n\nThanks");
+        TemplateRegistry registry = new TemplateRegistry(dir.toString(), "en");
+
+        assertThatThrownBy(registry::load)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("ORDER_PAID_en.txt")
+            .hasMessageContaining("{{orderNumber}}");
+    }
+
+    private TemplateRegistry registry() throws IOException {
+        TemplateRegistry registry = new TemplateRegistry(dir.toString(), "en");
+        registry.load();
+        return registry;
+    }
+
+    private String subject(TemplateRegistry registry, Locale locale) {
+        return registry.find("ORDER_PAID", locale).subject().render(event);
+    }
+
+    private void write(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        boolean existed = Files.exists(file);
+        FileTime previous = existed ? Files.getLastModifiedTime(file) : null;
+        Files.writeString(file, content);
+        if (existed) {
+            // Make the change visible to the fingerprint even within the same millisecond
+            Files.setLastModifiedTime(file, FileTime.fromMillis(previous.toMillis() + 1000));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.order.service.client;
 
+import com.order.service.dto.BulkCreatePaymentRequest;
+import com.order.service.dto.BulkPaymentResult;
+import com.order.service.dto.CancelPaymentsRequest;
 import com.order.service.dto.CreateOrderRequest;
 import com.order.service.dto.CreatePaymentRequest;
 import com.order.service.dto.PaymentResponse;
@@ -7,6 +10,8 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @FeignClient(
     name = "payment-service",
     url = "${payment.service.url}"
@@ -19,4 +24,19 @@ public interface PaymentServiceClient {
         @RequestBody CreatePaymentRequest request,
         @RequestHeader("Idempotency-Key") String idempotencyKey
     );
-}
\ No newline at end of file
+    
+    /**
+     * One result per request entry, each entry carries its own idempotency key
+     */
+    @PostMapping("/api/payments/batch")
+    @CircuitBreaker(name = "paymentService")
+    List<BulkPaymentResult> createPayments(@RequestBody BulkCreatePaymentRequest request);
+    
+    /**
+     * Cancel the unfinished payments of these orders
+     * Returns every payment of the orders, including ones that completed first
+     */
+    @PostMapping("/api/payments/cancel")
+    @CircuitBreaker(name = "paymentService")
+    List<PaymentResponse> cancelPayments(@RequestBody CancelPaymentsRequest request);
+}
@@ -0,0 +1,50 @@
+package com.order.service.config;
+
+import com.order.service.http.HttpClientProperties;
+import com.order.service.http.PooledFeignClient;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.net.ssl.SSLContext;
+import java.security.GeneralSecurityException;
+
+/**
+ * Transport shared by all Feign clients, picked up by Spring Cloud OpenFeign as the Client bean
+ */
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+    
+    @Bean
+    public Client feignClient(HttpClientProperties properties, MeterRegistry meterRegistry)
+            throws GeneralSecurityException {
+        if (properties.getTransport() == HttpClientProperties.Transport.DEFAULT) {
+            log.info("Feign transport: HttpURLConnection");
+            return new Client.Default(null, null);
+        }
+        
+        // Read once by the JDK connection pool, so only effective before the first HttpClient is built
+        setIfAbsent("jdk.httpclient.keepalive.timeout", properties.getIdleTimeoutSeconds());
+        setIfAbsent("jdk.httpclient.keepalive.timeout.h2", properties.getIdleTimeoutSeconds());
+        
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+        sslContext.getClientSessionContext().setSessionCacheSize(properties.getTlsSessionCacheSize());
+        sslContext.getClientSessionContext().setSessionTimeout(properties.getTlsSessionTimeoutSeconds());
+        
+        log.info("Feign transport: pooled {} client, {} connections per host",
+            properties.getHttpVersion(), properties.getMaxConnectionsPerHost());
+        return new PooledFeignClient(properties, sslContext, meterRegistry);
+    }
+    
+    private static void setIfAbsent(String property, int value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, String.valueOf(value));
+        }
+    }
+}
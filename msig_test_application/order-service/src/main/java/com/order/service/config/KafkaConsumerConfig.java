@@ -0,0 +1,109 @@
+package com.order.service.config;
+
+import com.order.service.event.PaymentEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+    
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+    
+    @Value("${order.kafka.payment-events.concurrency:1}")
+    private int concurrency;
+    
+    @Value("${order.kafka.payment-events.max-poll-records:500}")
+    private int maxPollRecords;
+    
+    @Bean
+    public ConsumerFactory<String, Object> consumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-group");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, 
+            StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, 
+            JsonDeserializer.class);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        
+        // Important: Manual offset commit for idempotency
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        
+        // Start from earliest if no offset exists
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        
+        // payment-service type headers name its own class, map onto ours
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, PaymentEvent.class.getName());
+        
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+    
+    /**
+     * One record per listener call
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> 
+            kafkaListenerContainerFactory() {
+        
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        
+        // Manual acknowledgment mode
+        factory.getContainerProperties()
+            .setAckMode(ContainerProperties.AckMode.MANUAL);
+        
+        return factory;
+    }
+    
+    /**
+     * Whole poll per listener call, offsets committed by the listener
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> 
+            batchListenerContainerFactory() {
+        
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        
+        factory.getContainerProperties()
+            .setAckMode(ContainerProperties.AckMode.MANUAL);
+        
+        return factory;
+    }
+    
+    /**
+     * Used by the batch listeners to send failed records to <topic>-dlt,
+     * the same topic @RetryableTopic ends in
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate,
+            (record, e) -> new TopicPartition(record.topic() + "-dlt", -1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.order.service.consumer;
+
+import com.order.service.event.PaymentEvent;
+import com.order.service.service.OrderService;
+import com.order.service.service.PaymentEventBatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch consumer that collapses each poll to one update per order
+ *
+ * The whole poll goes through PaymentEventBatchService in one transaction
+ * and is acknowledged once. If the batch fails, its events are applied one
+ * by one so a single bad event cannot hold back the rest; events that
+ * still fail go to payment-events-dlt.
+ *
+ * Enabled with order.kafka.payment-events.mode=coalescing
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "order.kafka.payment-events.mode", havingValue = "coalescing")
+public class CoalescingPaymentEventConsumer {
+    
+    private final PaymentEventBatchService batchService;
+    private final OrderService orderService;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final DistributionSummary batchSize;
+    private final Counter updatedCounter;
+    private final Counter fallbackCounter;
+    private final Counter deadLetteredCounter;
+    
+    public CoalescingPaymentEventConsumer(
+            PaymentEventBatchService batchService,
+            OrderService orderService,
+            DeadLetterPublishingRecoverer deadLetterRecoverer,
+            MeterRegistry meterRegistry) {
+        this.batchService = batchService;
+        this.orderService = orderService;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.batchSize = meterRegistry.summary("order.payment.events.batch.size");
+        this.updatedCounter = meterRegistry.counter("order.payment.events.batch.updated");
+        this.fallbackCounter = meterRegistry.counter("order.payment.events.batch.fallback");
+        this.deadLetteredCounter = meterRegistry.counter("order.payment.events.dlt");
+    }
+    
+    @KafkaListener(
+        topics = "payment-events",
+        groupId = "order-service-group",
+        containerFactory = "batchListenerContainerFactory"
+    )
+    public void consumePaymentEvents(List<ConsumerRecord<String, PaymentEvent>> records,
+                                     Acknowledgment ack) {
+        List<PaymentEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, PaymentEvent> record : records) {
+            events.add(record.value());
+        }
+        batchSize.record(events.size());
+        
+        try {
+            updatedCounter.increment(batchService.apply(events));
+            
+        } catch (Exception e) {
+            log.warn("Payment event batch of {} failed, applying one by one", records.size(), e);
+            fallbackCounter.increment();
+            applyOneByOne(records);
+        }
+        
+        ack.acknowledge();
+    }
+    
+    private void applyOneByOne(List<ConsumerRecord<String, PaymentEvent>> records) {
+        for (ConsumerRecord<String, PaymentEvent> record : records) {
+            try {
+                orderService.handlePaymentEvent(record.value());
+            } catch (Exception e) {
+                log.error("Error processing payment event with key: {} at {}-{}@{}", 
+                    record.key(), record.topic(), record.partition(), record.offset(), e);
+                // Throws if the DLT publish fails, the poll is then redelivered
+                deadLetterRecoverer.accept(record, e);
+                deadLetteredCounter.increment();
+            }
+        }
+    }
+}
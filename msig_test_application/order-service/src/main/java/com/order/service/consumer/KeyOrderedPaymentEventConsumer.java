@@ -0,0 +1,225 @@
+package com.order.service.consumer;
+
+import com.order.service.event.PaymentEvent;
+import com.order.service.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel consumer for payment events that keeps per-order ordering
+ *
+ * Each poll is fanned out to single-thread lanes chosen by orderId, so
+ * events of one order run in offset order while other orders run
+ * concurrently. Once a lane fails an event, later events of the same order
+ * in that poll are skipped. Per partition, offsets are committed up to the
+ * lowest contiguous completed offset and the consumer seeks back to the
+ * first unfinished one, so nothing after a failure is lost.
+ *
+ * A failed event is forwarded to payment-events-dlt with the failure in
+ * headers and counts as completed, so a poison event cannot stall its
+ * partition. Only when that publish fails is the order held back and the
+ * partition rewound.
+ *
+ * Enabled with order.kafka.payment-events.mode=key-ordered
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "order.kafka.payment-events.mode", havingValue = "key-ordered")
+public class KeyOrderedPaymentEventConsumer {
+    
+    private final OrderService orderService;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final ThreadPoolExecutor[] lanes;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter processedCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+    private final Counter deadLetteredCounter;
+    
+    public KeyOrderedPaymentEventConsumer(
+            OrderService orderService,
+            DeadLetterPublishingRecoverer deadLetterRecoverer,
+            MeterRegistry meterRegistry,
+            @Value("${order.kafka.payment-events.workers:16}") int workers) {
+        this.orderService = orderService;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.lanes = new ThreadPoolExecutor[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+            // Depth per lane, a per-order tag would be unbounded cardinality
+            Gauge.builder("order.payment.events.lane.depth", lanes[i], lane -> lane.getQueue().size())
+                .tag("lane", String.valueOf(i))
+                .register(meterRegistry);
+        }
+        
+        this.processedCounter = meterRegistry.counter("order.payment.events", "result", "processed");
+        this.failedCounter = meterRegistry.counter("order.payment.events", "result", "failed");
+        this.skippedCounter = meterRegistry.counter("order.payment.events", "result", "skipped");
+        this.deadLetteredCounter = meterRegistry.counter("order.payment.events.dlt");
+        Gauge.builder("order.payment.events.in_flight", inFlight, AtomicInteger::get)
+            .register(meterRegistry);
+    }
+    
+    @KafkaListener(
+        topics = "payment-events",
+        groupId = "order-service-group",
+        containerFactory = "batchListenerContainerFactory"
+    )
+    public void consumePaymentEvents(List<ConsumerRecord<String, PaymentEvent>> records,
+                                     Acknowledgment ack, Consumer<?, ?> consumer) {
+        boolean[] completed = new boolean[records.size()];
+        
+        // Group record indexes by lane, keeping offset order within each lane
+        Map<Integer, List<Integer>> byLane = new HashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            byLane.computeIfAbsent(laneOf(records.get(i)), k -> new ArrayList<>()).add(i);
+        }
+        
+        inFlight.addAndGet(records.size());
+        List<Future<?>> futures = new ArrayList<>(byLane.size());
+        for (Map.Entry<Integer, List<Integer>> entry : byLane.entrySet()) {
+            futures.add(lanes[entry.getKey()].submit(
+                () -> runLane(records, entry.getValue(), completed)));
+        }
+        for (Future<?> future : futures) {
+            awaitLane(future);
+        }
+        
+        commitCompleted(records, completed, ack, consumer);
+    }
+    
+    private void runLane(List<ConsumerRecord<String, PaymentEvent>> records,
+                         List<Integer> indexes, boolean[] completed) {
+        Set<String> failedKeys = new HashSet<>();
+        for (int index : indexes) {
+            ConsumerRecord<String, PaymentEvent> record = records.get(index);
+            String key = orderKey(record);
+            try {
+                if (failedKeys.contains(key)) {
+                    // An earlier event of this order failed, keep order
+                    skippedCounter.increment();
+                    continue;
+                }
+                orderService.handlePaymentEvent(record.value());
+                completed[index] = true;
+                processedCounter.increment();
+                
+            } catch (Exception e) {
+                log.error("Error processing payment event with key: {} at {}-{}@{}", 
+                    record.key(), record.topic(), record.partition(), record.offset(), e);
+                failedCounter.increment();
+                if (deadLetter(record, e)) {
+                    completed[index] = true;
+                } else {
+                    failedKeys.add(key);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+    
+    private boolean deadLetter(ConsumerRecord<String, PaymentEvent> record, Exception e) {
+        try {
+            deadLetterRecoverer.accept(record, e);
+            deadLetteredCounter.increment();
+            return true;
+        } catch (Exception publishError) {
+            log.error("Failed to dead-letter payment event at {}-{}@{}", 
+                record.topic(), record.partition(), record.offset(), publishError);
+            return false;
+        }
+    }
+    
+    private void commitCompleted(List<ConsumerRecord<String, PaymentEvent>> records,
+                                 boolean[] completed, Acknowledgment ack, Consumer<?, ?> consumer) {
+        // Records of one partition arrive in offset order within a poll
+        Map<TopicPartition, Long> commitUpTo = new LinkedHashMap<>();
+        Map<TopicPartition, Long> seekTo = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, PaymentEvent> record = records.get(i);
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            if (seekTo.containsKey(partition)) {
+                continue;
+            }
+            if (completed[i]) {
+                commitUpTo.put(partition, record.offset() + 1);
+            } else {
+                seekTo.put(partition, record.offset());
+            }
+        }
+        
+        if (seekTo.isEmpty()) {
+            ack.acknowledge();
+            return;
+        }
+        
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        commitUpTo.forEach((partition, offset) -> offsets.put(partition, new OffsetAndMetadata(offset)));
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        seekTo.forEach(consumer::seek);
+        log.warn("Redelivering payment events from {}", seekTo);
+    }
+    
+    private int laneOf(ConsumerRecord<String, PaymentEvent> record) {
+        return Math.floorMod(orderKey(record).hashCode(), lanes.length);
+    }
+    
+    private String orderKey(ConsumerRecord<String, PaymentEvent> record) {
+        PaymentEvent event = record.value();
+        if (event != null && event.getOrderId() != null) {
+            return event.getOrderId();
+        }
+        // Older events without orderId: the payment maps to exactly one order
+        return record.key() != null ? record.key() : "";
+    }
+    
+    private void awaitLane(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for payment event lanes", e);
+        } catch (ExecutionException e) {
+            // runLane handles per-record errors itself
+            log.error("Payment event lane failed", e.getCause());
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
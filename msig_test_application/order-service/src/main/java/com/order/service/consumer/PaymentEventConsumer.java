@@ -2,27 +2,55 @@ package com.order.service.consumer;
 
 import com.order.service.event.PaymentEvent;
 import com.order.service.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "order.kafka.payment-events.mode", havingValue = "record", matchIfMissing = true)
 public class PaymentEventConsumer {
     
     private final OrderService orderService;
+    private final MeterRegistry meterRegistry;
     
+    /**
+     * Failures are forwarded to payment-events-retry-N with growing delays
+     * and finally to payment-events-dlt, so the partition keeps moving
+     */
+    @RetryableTopic(
+        attempts = "${order.kafka.retry.attempts:4}",
+        backoff = @Backoff(
+            delayExpression = "${order.kafka.retry.delay-ms:1000}",
+            multiplierExpression = "${order.kafka.retry.multiplier:5}",
+            maxDelayExpression = "${order.kafka.retry.max-delay-ms:60000}"),
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+        listenerContainerFactory = "kafkaListenerContainerFactory"
+    )
     @KafkaListener(
         topics = "payment-events",
         groupId = "order-service-group",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumePaymentEvent(PaymentEvent event, Acknowledgment ack) {
-        log.info("Consuming payment event: {} for payment: {}", 
-            event.getEventType(), event.getPaymentId());
+    public void consumePaymentEvent(PaymentEvent event, Acknowledgment ack,
+                                    @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        log.info("Consuming payment event: {} for payment: {} from {}", 
+            event.getEventType(), event.getPaymentId(), topic);
+        
+        if (!"payment-events".equals(topic)) {
+            meterRegistry.counter("order.payment.events.retry", "topic", topic).increment();
+        }
         
         try {
             // Process event idempotently
@@ -33,8 +61,20 @@ public class PaymentEventConsumer {
             
         } catch (Exception e) {
             log.error("Error processing payment event: {}", event.getPaymentId(), e);
-            // Don't acknowledge - message will be redelivered
+            // Rethrow - the error handler forwards it to the next retry topic
             throw e;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Exception class, message and original offset arrive as kafka_dlt-* headers
+     */
+    @DltHandler
+    public void handleDeadLetter(PaymentEvent event, Acknowledgment ack,
+                                 @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String error) {
+        log.error("Payment event {} for payment: {} dead-lettered: {}", 
+            event.getEventId(), event.getPaymentId(), error);
+        meterRegistry.counter("order.payment.events.dlt").increment();
+        ack.acknowledge();
+    }
+}
@@ -0,0 +1,35 @@
+package com.order.service.controller;
+
+import com.order.service.service.DeadLetterRedriveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/dlt")
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterController {
+    
+    private final DeadLetterRedriveService redriveService;
+    
+    /**
+     * Republish dead-lettered records to their original topic
+     */
+    @PostMapping("/{topic}/redrive")
+    public ResponseEntity<Map<String, Object>> redrive(
+            @PathVariable String topic,
+            @RequestParam(defaultValue = "100") int max) {
+        
+        if (!topic.endsWith("-dlt") || max <= 0) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Expected a -dlt topic and a positive max"));
+        }
+        
+        int redriven = redriveService.redrive(topic, max);
+        return ResponseEntity.ok(Map.of("topic", topic, "redriven", redriven));
+    }
+}
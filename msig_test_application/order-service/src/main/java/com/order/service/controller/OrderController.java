@@ -0,0 +1,121 @@
+package com.order.service.controller;
+
+import com.order.service.dto.*;
+import com.order.service.exception.InvalidIdempotencyKeyException;
+import com.order.service.service.BulkOrderService;
+import com.order.service.service.OrderIdempotencyService;
+import com.order.service.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@Slf4j
+@RequiredArgsConstructor
+public class OrderController {
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    
+    private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderIdempotencyService idempotencyService;
+    
+    /**
+     * Create order, payment is initiated asynchronously
+     * With an Idempotency-Key header a retry returns the original order with 200 instead of 201
+     */
+    @PostMapping
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        
+        log.info("Received order request for user: {}", request.getUserId());
+        
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(orderService.createOrder(request));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(MAX_IDEMPOTENCY_KEY_LENGTH);
+        }
+        
+        OrderIdempotencyService.Result result = idempotencyService.createOrder(request, idempotencyKey);
+        return ResponseEntity.status(result.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+            .body(result.order());
+    }
+    
+    /**
+     * Create up to 500 orders in one call
+     * Invalid orders are rejected individually, see the per-order results
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BulkOrderResponse> createOrders(
+            @Valid @RequestBody BulkCreateOrderRequest request) {
+        
+        log.info("Received bulk order request with {} orders", request.getOrders().size());
+        return ResponseEntity.ok(bulkOrderService.createOrders(request.getOrders()));
+    }
+    
+    /**
+     * Order history of a user, newest first, keyset-paginated
+     * Line items are left out unless includeItems=true
+     */
+    @GetMapping
+    public ResponseEntity<OrderPage> listOrders(
+            @RequestParam String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeItems) {
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(orderService.findOrders(userId, after, pageSize, includeItems));
+    }
+    
+    /**
+     * Full order history of a user as NDJSON, in constant memory
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(@RequestParam String userId) {
+        log.info("Streaming orders for user: {}", userId);
+        
+        StreamingResponseBody body = out -> orderService.streamOrders(userId, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+    
+    @GetMapping("/{orderId}")
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderService.getOrder(orderId));
+    }
+    
+    /**
+     * Cheap status poll, may lag the database by up to order.status-projection.max-staleness-ms
+     */
+    @GetMapping("/{orderId}/status")
+    public ResponseEntity<OrderStatusResponse> getOrderStatus(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderService.getOrderStatus(orderId));
+    }
+    
+    @GetMapping("/{orderId}/items")
+    public ResponseEntity<List<OrderItemResponse>> getOrderItems(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderService.getOrderItems(orderId));
+    }
+    
+    /**
+     * Order count, units and revenue of one product
+     */
+    @GetMapping("/products/{productId}/sales")
+    public ResponseEntity<ProductSalesSummary> getProductSales(@PathVariable String productId) {
+        return ResponseEntity.ok(orderService.getProductSales(productId));
+    }
+}
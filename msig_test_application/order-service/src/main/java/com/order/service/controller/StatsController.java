@@ -0,0 +1,27 @@
+package com.order.service.controller;
+
+import com.order.service.dto.StatsResponse;
+import com.order.service.model.OrderStatus;
+import com.order.service.stats.RollingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    
+    private final RollingStats rollingStats;
+    
+    /**
+     * Order transitions applied by this instance, from memory only
+     * Conversion ratios are relative to orders created (PAYMENT_PENDING)
+     */
+    @GetMapping
+    public ResponseEntity<StatsResponse> getStats() {
+        return ResponseEntity.ok(rollingStats.snapshot(OrderStatus.PAYMENT_PENDING.name()));
+    }
+}
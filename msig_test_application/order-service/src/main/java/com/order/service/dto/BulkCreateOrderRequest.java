@@ -0,0 +1,17 @@
+package com.order.service.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Orders are validated one by one, so an invalid order is rejected on its own
+ */
+@Data
+public class BulkCreateOrderRequest {
+    
+    @NotEmpty(message = "Orders cannot be empty")
+    @Size(max = 500, message = "At most 500 orders per request")
+    private List<CreateOrderRequest> orders;
+}
@@ -0,0 +1,13 @@
+package com.order.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreatePaymentRequest {
+    private List<CreatePaymentRequest> payments;
+}
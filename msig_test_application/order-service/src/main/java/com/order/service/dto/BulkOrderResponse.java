@@ -0,0 +1,14 @@
+package com.order.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class BulkOrderResponse {
+    private int accepted;
+    private int rejected;
+    private int paymentsInitiated;
+    private List<BulkOrderResult> results;
+}
@@ -0,0 +1,24 @@
+package com.order.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.order.service.model.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Outcome of the order at index in the request
+ * Rejected orders have errors and no orderId
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    private int index;
+    private String orderId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private String paymentId;
+    private List<String> errors;
+}
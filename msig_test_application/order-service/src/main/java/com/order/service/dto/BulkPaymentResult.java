@@ -0,0 +1,12 @@
+package com.order.service.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkPaymentResult {
+    private String idempotencyKey;
+    private String orderId;
+    private String paymentId;
+    private String status;
+    private boolean created;
+}
@@ -0,0 +1,14 @@
+package com.order.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CancelPaymentsRequest {
+    private List<String> orderIds;
+    private String reason;
+}
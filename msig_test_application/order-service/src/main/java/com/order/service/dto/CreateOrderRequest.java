@@ -1,6 +1,7 @@
 package com.order.service.dto;
 
 import lombok.Data;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.util.List;
@@ -12,7 +13,7 @@ public class CreateOrderRequest {
     private String userId;
     
     @NotEmpty(message = "Order items cannot be empty")
-    private List<OrderItem> items;
+    private List<@NotNull(message = "Order item is required") @Valid OrderItem> items;
     
     @NotBlank(message = "Currency is required")
     private String currency;
@@ -26,11 +27,11 @@ public class CreateOrderRequest {
         private String productName;
         
         @NotNull
-        @Min(1)
+        @Positive
         private Integer quantity;
         
         @NotNull
-        @DecimalMin("0.01")
+        @Positive
         private BigDecimal price;
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.order.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class OrderPage {
+    private List<OrderSummary> items;
+    private String nextCursor; // Pass as ?after= for the next page, null on the last page
+}
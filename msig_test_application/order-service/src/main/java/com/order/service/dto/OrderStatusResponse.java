@@ -0,0 +1,16 @@
+package com.order.service.dto;
+
+import com.order.service.model.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Status of one order, source is PROJECTION or DATABASE
+ */
+@Data
+@Builder
+public class OrderStatusResponse {
+    private String orderId;
+    private OrderStatus status;
+    private String source;
+}
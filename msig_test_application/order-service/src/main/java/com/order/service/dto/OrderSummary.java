@@ -0,0 +1,33 @@
+package com.order.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.order.service.model.OrderStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lightweight order row for list queries, read without entity hydration
+ */
+@Data
+@Builder
+public class OrderSummary {
+    @JsonIgnore
+    private Long id; // Keyset tie-breaker, not exposed
+    private String orderId;
+    private String userId;
+    private BigDecimal totalAmount;
+    private String currency;
+    private OrderStatus status;
+    private String paymentId;
+    private LocalDateTime createdAt;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<OrderItemResponse> items; // Only with includeItems=true
+    
+    @JsonIgnore
+    private String legacyItems; // JSON column of orders that predate order_items
+}
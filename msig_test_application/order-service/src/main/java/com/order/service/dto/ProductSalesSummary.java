@@ -0,0 +1,17 @@
+package com.order.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * Totals of one product across all order lines
+ */
+@Data
+@Builder
+public class ProductSalesSummary {
+    private String productId;
+    private long orders;
+    private long quantity;
+    private BigDecimal revenue;
+}
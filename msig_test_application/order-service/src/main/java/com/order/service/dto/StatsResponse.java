@@ -0,0 +1,38 @@
+package com.order.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transition counts of the last minute, 5 minutes and hour
+ * conversion is each transition's total over the base transition's total
+ */
+@Data
+@Builder
+public class StatsResponse {
+    private Instant asOf;
+    private String baseTransition;
+    private List<Window> windows;
+    
+    @Data
+    @Builder
+    public static class Window {
+        private String window;
+        private int seconds;
+        private Map<String, Long> totals;
+        private Map<String, Double> conversion;
+        private List<TransitionCount> transitions;
+    }
+    
+    @Data
+    @Builder
+    public static class TransitionCount {
+        private String transition;
+        private String currency;
+        private long count;
+        private double ratePerSecond;
+    }
+}
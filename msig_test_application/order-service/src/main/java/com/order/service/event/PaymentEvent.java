@@ -1,6 +1,7 @@
 package com.order.service.event;
 
 import lombok.Data;
+import java.math.BigDecimal;
 
 @Data
 public class PaymentEvent {
@@ -8,6 +9,9 @@ public class PaymentEvent {
     private String paymentId;
     private String orderId;
     private String eventType;      // PAYMENT_SUCCESS | PAYMENT_FAILED
+    private BigDecimal amount;
+    private String currency;
     private Integer version;
+    private Long sequence;         // Monotonic per payment
     private Long timestamp;
 }
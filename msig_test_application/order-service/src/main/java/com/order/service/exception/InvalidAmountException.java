@@ -0,0 +1,14 @@
+package com.order.service.exception;
+
+/**
+ * An amount or currency a Money cannot represent, reported to the client as 400
+ */
+public class InvalidAmountException extends IllegalArgumentException {
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+    
+    public InvalidAmountException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.order.service.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super("Idempotency-Key must be 1 to " + maxLength + " characters");
+    }
+}
@@ -1,7 +0,0 @@
-package com.order.service.exception;
-
-public class PaymentInitiationException extends RuntimeException {
-    public PaymentInitiationException(String message, Throwable cause) {
-        super(message, cause);
-    }
-}
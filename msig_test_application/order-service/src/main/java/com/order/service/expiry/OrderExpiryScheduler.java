@@ -0,0 +1,169 @@
+package com.order.service.expiry;
+
+import com.order.service.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires payment deadlines of unpaid orders
+ *
+ * Deadlines of orders created on this instance go into an in-memory
+ * TimingWheel, which is rebuilt at startup from a scan of the
+ * payment_deadline index. A periodic sweep of the same index picks up
+ * deadlines this instance never saw, i.e. orders created on an instance
+ * that died before they fired, with a grace period so it does not race
+ * the wheels. Every deadline is resolved by OrderExpiryService.expire,
+ * which is safe to run more than once per order.
+ */
+@Component
+@Slf4j
+public class OrderExpiryScheduler {
+    
+    private static final String PENDING_DEADLINES_SQL = """
+        SELECT order_id, payment_deadline
+        FROM orders
+        WHERE payment_deadline IS NOT NULL
+          AND status IN ('PAYMENT_PENDING', 'PAYMENT_PROCESSING')
+        """;
+    
+    private static final String OVERDUE_SQL = """
+        SELECT order_id
+        FROM orders
+        WHERE payment_deadline < ?
+          AND status IN ('PAYMENT_PENDING', 'PAYMENT_PROCESSING')
+        ORDER BY payment_deadline
+        LIMIT ?
+        """;
+    
+    private final OrderExpiryService expiryService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration paymentTimeout;
+    private final Duration sweepGrace;
+    private final long tickMs;
+    private final int batchSize;
+    private final int fetchSize;
+    private final TimingWheel<String> wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+        runnable -> new Thread(runnable, "order-expiry-ticker"));
+    
+    private final Counter expiredCounter;
+    
+    public OrderExpiryScheduler(
+            OrderExpiryService expiryService,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.expiry.payment-timeout-ms:1800000}") long paymentTimeoutMs,
+            @Value("${order.expiry.tick-ms:1000}") long tickMs,
+            @Value("${order.expiry.sweep-grace-ms:60000}") long sweepGraceMs,
+            @Value("${order.expiry.batch-size:500}") int batchSize,
+            @Value("${order.expiry.fetch-size:5000}") int fetchSize) {
+        this.expiryService = expiryService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.paymentTimeout = Duration.ofMillis(paymentTimeoutMs);
+        this.sweepGrace = Duration.ofMillis(sweepGraceMs);
+        this.tickMs = tickMs;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        
+        this.expiredCounter = meterRegistry.counter("order.expiry.expired");
+        Gauge.builder("order.expiry.timers", wheel, TimingWheel::size)
+            .register(meterRegistry);
+    }
+    
+    public LocalDateTime deadlineFor(LocalDateTime createdAt) {
+        return createdAt.plus(paymentTimeout);
+    }
+    
+    public void schedule(String orderId, LocalDateTime deadline) {
+        wheel.schedule(orderId, toEpochMilli(deadline));
+    }
+    
+    /**
+     * Reload pending deadlines, then start ticking
+     * Postgres only streams with a fetch size when auto-commit is off, hence the transaction
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(PENDING_DEADLINES_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSet rs) -> {
+            wheel.schedule(rs.getString(1), rs.getTimestamp(2).getTime());
+        });
+        log.info("Expiry wheel rebuilt: {} pending deadlines in {} ms",
+            wheel.size(), System.currentTimeMillis() - startedAt);
+        
+        ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(sweepGrace));
+            List<String> overdue;
+            do {
+                overdue = jdbcTemplate.queryForList(OVERDUE_SQL, String.class, cutoff, batchSize);
+                if (!overdue.isEmpty()) {
+                    log.info("Sweep found {} overdue orders", overdue.size());
+                    expire(overdue);
+                }
+            } while (overdue.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Expiry sweep failed", e);
+        }
+    }
+    
+    private void tick() {
+        try {
+            List<String> due = wheel.advance(System.currentTimeMillis());
+            for (int from = 0; from < due.size(); from += batchSize) {
+                expire(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (Exception e) {
+            // Deadlines lost here are picked up by the sweep
+            log.error("Expiry tick failed", e);
+        }
+    }
+    
+    private void expire(List<String> orderIds) {
+        // Their payments are cancelled by PaymentCancellationRelay
+        List<Order> expired = expiryService.expire(new ArrayList<>(orderIds));
+        expiredCounter.increment(expired.size());
+    }
+    
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.order.service.expiry;
+
+import com.order.service.client.PaymentServiceClient;
+import com.order.service.dto.CancelPaymentsRequest;
+import com.order.service.dto.PaymentResponse;
+import com.order.service.event.OrderEvent;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import com.order.service.repository.OrderBatchRepository;
+import com.order.service.repository.OrderRepository;
+import com.order.service.stats.RollingStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cancels orders whose payment did not complete before their deadline
+ *
+ * expire() is the local transaction: a conditional batch update that only
+ * matches orders still PAYMENT_PENDING or PAYMENT_PROCESSING past their
+ * deadline, so a timer firing on several instances, or after the order was
+ * paid, changes nothing. Pending initiations of the expired orders are
+ * failed and their payment cancellations queued in the same transaction;
+ * PaymentCancellationRelay makes the remote call after commit and retries
+ * it until payment-service accepts it.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderExpiryService {
+    
+    static final String REASON = "Order expired before payment completed";
+    
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentServiceClient paymentClient;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RollingStats rollingStats;
+    
+    /**
+     * @return the orders this call moved to CANCELLED
+     */
+    @Transactional
+    public List<Order> expire(List<String> orderIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> expired = orderBatchRepository.expireOrders(orderIds, now);
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        
+        orderBatchRepository.failInitiations(expired, REASON, now);
+        orderBatchRepository.enqueueCancellations(expired, now);
+        List<Order> orders = orderRepository.findByOrderIdIn(expired);
+        for (Order order : orders) {
+            rollingStats.record(OrderStatus.CANCELLED.name(), order.getCurrency());
+            publishExpired(order);
+        }
+        
+        log.info("Expired {} of {} due orders", expired.size(), orderIds.size());
+        return orders;
+    }
+    
+    /**
+     * Cancel the payments of cancelled orders in payment-service
+     * Payments that completed first are flagged REFUND_REQUIRED there and logged here, the order stays CANCELLED
+     */
+    public void cancelPayments(List<String> orderIds) {
+        List<PaymentResponse> payments = paymentClient.cancelPayments(new CancelPaymentsRequest(orderIds, REASON));
+        for (PaymentResponse payment : payments) {
+            if ("SUCCESS".equals(payment.getStatus()) || "REFUND_REQUIRED".equals(payment.getStatus())) {
+                log.warn("Payment {} of expired order {} completed before cancellation, needs a refund",
+                    payment.getPaymentId(), payment.getOrderId());
+            }
+        }
+    }
+    
+    private void publishExpired(Order order) {
+        OrderEvent event = OrderEvent.builder()
+            .orderId(order.getOrderId())
+            .userId(order.getUserId())
+            .eventType("ORDER_EXPIRED")
+            .totalAmount(order.getTotalAmount())
+            .currency(order.getCurrency())
+            .timestamp(System.currentTimeMillis())
+            .build();
+        
+        kafkaTemplate.send("order-events", order.getOrderId(), event);
+    }
+}
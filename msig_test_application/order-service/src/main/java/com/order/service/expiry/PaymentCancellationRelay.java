@@ -0,0 +1,81 @@
+package com.order.service.expiry;
+
+import com.order.service.repository.PaymentCancellationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the payment cancellation outbox into payment-service
+ *
+ * Due rows are claimed a batch at a time and cancelled with one bulk call.
+ * payment-service cancels PENDING and PROCESSING payments and flags ones
+ * that already succeeded as REFUND_REQUIRED, so repeating the call after a
+ * lost response or an expired lease is safe.
+ */
+@Component
+@Slf4j
+public class PaymentCancellationRelay {
+    
+    private final PaymentCancellationService cancellationService;
+    private final OrderExpiryService expiryService;
+    private final int batchSize;
+    
+    private final Counter cancelledCounter;
+    private final Counter failedCounter;
+    
+    public PaymentCancellationRelay(
+            PaymentCancellationService cancellationService,
+            PaymentCancellationRepository cancellationRepository,
+            OrderExpiryService expiryService,
+            MeterRegistry meterRegistry,
+            @Value("${order.payment-cancellation.batch-size:100}") int batchSize) {
+        this.cancellationService = cancellationService;
+        this.expiryService = expiryService;
+        this.batchSize = batchSize;
+        
+        this.cancelledCounter = meterRegistry.counter("order.expiry.cancelled");
+        this.failedCounter = meterRegistry.counter("order.expiry.cancel.failed");
+        Gauge.builder("order.expiry.cancel.pending", cancellationRepository,
+                PaymentCancellationRepository::countPending)
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.payment-cancellation.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            PaymentCancellationService.Claim claim;
+            do {
+                claim = cancellationService.claim(batchSize);
+                if (!claim.isEmpty() && !cancel(claim)) {
+                    return;
+                }
+            } while (claim.cancellations().size() == batchSize);
+        } catch (Exception e) {
+            // Claimed rows are retried once their lease expires
+            log.error("Payment cancellation poll failed", e);
+        }
+    }
+    
+    /**
+     * @return false if payment-service could not be reached, to wait for the next poll
+     */
+    private boolean cancel(PaymentCancellationService.Claim claim) {
+        try {
+            expiryService.cancelPayments(claim.orderIds());
+        } catch (Exception e) {
+            failedCounter.increment(claim.cancellations().size());
+            log.warn("Failed to cancel payments of {} orders, will retry: {}",
+                claim.cancellations().size(), e.getMessage());
+            cancellationService.markFailed(claim, e.getMessage());
+            return false;
+        }
+        cancellationService.markCancelled(claim);
+        cancelledCounter.increment(claim.cancellations().size());
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package com.order.service.expiry;
+
+import com.order.service.model.PaymentCancellation;
+import com.order.service.repository.PaymentCancellationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Short transactions around the payment cancellation outbox
+ *
+ * A cancellation is never given up: an order that stays CANCELLED must not
+ * keep a payment that can still be captured, so failed rows are retried
+ * with exponential backoff capped at max-backoff-ms.
+ */
+@Service
+@Slf4j
+public class PaymentCancellationService {
+    
+    private final PaymentCancellationRepository cancellationRepository;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    
+    public PaymentCancellationService(
+            PaymentCancellationRepository cancellationRepository,
+            @Value("${order.payment-cancellation.initial-backoff-ms:2000}") long initialBackoffMs,
+            @Value("${order.payment-cancellation.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${order.payment-cancellation.lease-ms:60000}") long leaseMs) {
+        this.cancellationRepository = cancellationRepository;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+    
+    /**
+     * Claim up to limit due rows and lease them until the returned claim's leaseUntil
+     */
+    @Transactional
+    public Claim claim(int limit) {
+        // Millisecond precision so the lease compares equal after a round trip through Postgres
+        LocalDateTime leaseUntil = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).plus(lease);
+        List<PaymentCancellation> due = cancellationRepository.lockDue(LocalDateTime.now(), limit);
+        
+        for (PaymentCancellation cancellation : due) {
+            cancellation.setAttempts(cancellation.getAttempts() + 1);
+            cancellation.setNextAttemptAt(leaseUntil);
+        }
+        return new Claim(due, leaseUntil);
+    }
+    
+    @Transactional
+    public void markCancelled(Claim claim) {
+        cancellationRepository.markCancelled(claim.ids(), claim.leaseUntil(), LocalDateTime.now());
+    }
+    
+    /**
+     * Schedule a retry of the claimed rows that were not re-enqueued meanwhile
+     */
+    @Transactional
+    public void markFailed(Claim claim, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        for (PaymentCancellation cancellation : cancellationRepository.findAllById(claim.ids())) {
+            if (!claim.leaseUntil().equals(cancellation.getNextAttemptAt())) {
+                continue;
+            }
+            cancellation.setLastError(error);
+            cancellation.setNextAttemptAt(now.plus(backoff(cancellation.getAttempts())));
+        }
+    }
+    
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 16));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+    
+    public record Claim(List<PaymentCancellation> cancellations, LocalDateTime leaseUntil) {
+        
+        public List<Long> ids() {
+            return cancellations.stream().map(PaymentCancellation::getId).toList();
+        }
+        
+        public List<String> orderIds() {
+            return cancellations.stream().map(PaymentCancellation::getOrderId).toList();
+        }
+        
+        public boolean isEmpty() {
+            return cancellations.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.order.service.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck, cascading as in the Linux kernel)
+ *
+ * levels wheels of 2^bits buckets each. Level n holds timers due in
+ * [2^(bits*n), 2^(bits*(n+1))) ticks; when the level below wraps, the current
+ * bucket of level n is re-placed one level down. Scheduling is a push onto
+ * a bucket list and every timer is cascaded at most levels - 1 times, so
+ * both are O(1) regardless of how many timers are pending. Deadlines past
+ * the top level are parked in its farthest bucket and re-placed from there.
+ *
+ * Timers cannot be cancelled; a fired timer whose order has moved on
+ * simply matches nothing. Calls are serialized on the wheel.
+ */
+final class TimingWheel<T> {
+    
+    private static final int DEFAULT_BITS = 8;
+    private static final int DEFAULT_LEVELS = 4;
+    
+    private static final class Timer<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timer<T> next;
+        
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+    
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final long maxDelta;
+    private final long tickMs;
+    private final long originMs;
+    private final Timer<T>[][] buckets;
+    private long currentTick;
+    private long size;
+    
+    TimingWheel(long tickMs, long nowMs) {
+        this(tickMs, nowMs, DEFAULT_BITS, DEFAULT_LEVELS);
+    }
+    
+    /**
+     * @param bits log2 of the buckets per level
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, long nowMs, int bits, int levels) {
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levels = levels;
+        this.maxDelta = (1L << (bits * levels)) - 1;
+        this.tickMs = tickMs;
+        this.originMs = nowMs;
+        this.buckets = new Timer[levels][1 << bits];
+    }
+    
+    /**
+     * Schedule value to fire at the first tick at or after deadlineMs
+     * Deadlines already passed fire on the next advance
+     */
+    synchronized void schedule(T value, long deadlineMs) {
+        long deadlineTick = Math.max(Math.ceilDiv(deadlineMs - originMs, tickMs), currentTick + 1);
+        place(new Timer<>(value, deadlineTick));
+        size++;
+    }
+    
+    /**
+     * Move the wheel up to nowMs
+     * @return values whose deadline has been reached, in deadline order
+     */
+    synchronized List<T> advance(long nowMs) {
+        long targetTick = Math.floorDiv(nowMs - originMs, tickMs);
+        List<T> expired = new ArrayList<>();
+        
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            
+            int slot = (int) (currentTick & mask);
+            Timer<T> timer = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                if (timer.deadlineTick <= currentTick) {
+                    expired.add(timer.value);
+                    size--;
+                } else {
+                    place(timer); // Parked past the top level
+                }
+                timer = next;
+            }
+        }
+        return expired;
+    }
+    
+    synchronized long size() {
+        return size;
+    }
+    
+    /**
+     * Re-place the current bucket of every level whose lower level just wrapped
+     */
+    private void cascade() {
+        for (int level = 1; level < levels; level++) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> (bits * level)) & mask);
+            Timer<T> timer = buckets[level][slot];
+            buckets[level][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+    
+    private void place(Timer<T> timer) {
+        long delta = Math.min(timer.deadlineTick - currentTick, maxDelta);
+        long tick = currentTick + Math.max(delta, 0);
+        
+        int level = 0;
+        while (level < levels - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (bits * level)) & mask);
+        timer.next = buckets[level][slot];
+        buckets[level][slot] = timer;
+    }
+}
@@ -0,0 +1,36 @@
+package com.order.service.http;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+
+/**
+ * Transport of the Feign clients (order.http-client.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "order.http-client")
+public class HttpClientProperties {
+    
+    public enum Transport {
+        POOLED,  // Shared JDK HttpClient, see PooledFeignClient
+        DEFAULT  // Feign's HttpURLConnection client
+    }
+    
+    private Transport transport = Transport.DEFAULT;
+    
+    // HTTP_2 falls back to HTTP/1.1 per connection when the peer does not speak it
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+    
+    private int maxConnectionsPerHost = 64;
+    
+    // Wait for a free connection slot before failing the call
+    private long acquireTimeoutMs = 3000;
+    
+    // Idle keep-alive connections are closed after this
+    private int idleTimeoutSeconds = 30;
+    
+    private int tlsSessionCacheSize = 1000;
+    
+    private int tlsSessionTimeoutSeconds = 3600;
+}
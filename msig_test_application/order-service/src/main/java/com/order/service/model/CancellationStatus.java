@@ -0,0 +1,6 @@
+package com.order.service.model;
+
+public enum CancellationStatus {
+    PENDING,    // Waiting for the relay, retried until payment-service accepts it
+    CANCELLED   // Cancel request accepted by payment-service
+}
@@ -0,0 +1,7 @@
+package com.order.service.model;
+
+public enum InitiationStatus {
+    PENDING,    // Waiting for the relay
+    INITIATED,  // Payment created in payment-service
+    FAILED      // Gave up after max attempts
+}
@@ -0,0 +1,145 @@
+package com.order.service.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.order.service.exception.InvalidAmountException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Amount in minor units (cents for USD, yen for JPY) with its ISO-4217 currency
+ *
+ * Arithmetic is on longs and never wraps. Converting from BigDecimal is
+ * exact: an amount with more decimals than the currency allows is rejected,
+ * never rounded. Amounts, results and currencies that cannot be represented,
+ * including overflow, throw InvalidAmountException.
+ * Serialized as {"amount": 12.34, "currency": "USD"}.
+ */
+public record Money(@JsonIgnore long minorUnits, String currency) {
+    
+    private static final Map<String, Integer> FRACTION_DIGITS = new ConcurrentHashMap<>();
+    
+    public Money {
+        fractionDigits(currency);
+    }
+    
+    @JsonCreator
+    public static Money of(@JsonProperty("amount") BigDecimal amount,
+                           @JsonProperty("currency") String currency) {
+        return new Money(toMinorUnits(amount, fractionDigits(currency)), currency);
+    }
+    
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+    
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+    
+    /**
+     * Sum of unit price x quantity over all lines
+     *
+     * Lines are accumulated as longs, so no Money or BigDecimal is created
+     * per line; reading a price's unscaled value still allocates one
+     * BigInteger. Prices already at the currency scale, the normal case, are
+     * read without rescaling.
+     */
+    public static <T> Money total(String currency, List<T> lines,
+                                  Function<T, BigDecimal> unitPrice,
+                                  ToIntFunction<T> quantity) {
+        int digits = fractionDigits(currency);
+        long total = 0;
+        for (int i = 0, n = lines.size(); i < n; i++) {
+            T line = lines.get(i);
+            long price = toMinorUnits(unitPrice.apply(line), digits);
+            try {
+                total = Math.addExact(total, Math.multiplyExact(price, quantity.applyAsInt(line)));
+            } catch (ArithmeticException e) {
+                throw overflow(currency, e);
+            }
+        }
+        return new Money(total, currency);
+    }
+    
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        try {
+            return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+        } catch (ArithmeticException e) {
+            throw overflow(currency, e);
+        }
+    }
+    
+    public Money times(long factor) {
+        try {
+            return new Money(Math.multiplyExact(minorUnits, factor), currency);
+        } catch (ArithmeticException e) {
+            throw overflow(currency, e);
+        }
+    }
+    
+    @JsonProperty("amount")
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+    
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new InvalidAmountException(
+                "Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+    
+    private static InvalidAmountException overflow(String currency, ArithmeticException cause) {
+        return new InvalidAmountException("Amount too large for " + currency, cause);
+    }
+    
+    private static long toMinorUnits(BigDecimal amount, int digits) {
+        if (amount.scale() == digits && amount.precision() <= 18) {
+            return amount.unscaledValue().longValue();
+        }
+        try {
+            return amount.setScale(digits, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidAmountException(
+                "Amount " + amount.toPlainString() + " does not fit " + digits + " decimal places", e);
+        }
+    }
+    
+    private static int fractionDigits(String currency) {
+        if (currency == null) {
+            throw new InvalidAmountException("Currency is required");
+        }
+        Integer cached = FRACTION_DIGITS.get(currency);
+        if (cached != null) {
+            return cached;
+        }
+        
+        int digits;
+        try {
+            digits = Currency.getInstance(currency).getDefaultFractionDigits();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAmountException("Unknown currency: " + currency, e);
+        }
+        if (digits < 0) {
+            // Pseudo-currencies such as XAU have no minor unit
+            throw new InvalidAmountException("Currency has no minor unit: " + currency);
+        }
+        FRACTION_DIGITS.put(currency, digits);
+        return digits;
+    }
+}
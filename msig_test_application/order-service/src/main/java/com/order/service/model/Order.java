@@ -11,8 +11,15 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_id", columnList = "orderId", unique = true),
-    @Index(name = "idx_user_id", columnList = "userId"),
-    @Index(name = "idx_payment_id", columnList = "paymentId")
+    // Keyset pagination of a user's history, also serves plain userId lookups
+    @Index(name = "idx_user_keyset", columnList = "userId, createdAt, id"),
+    @Index(name = "idx_payment_id", columnList = "paymentId"),
+    // Client retries of POST /api/orders, keys are scoped to the user
+    @Index(name = "idx_order_idempotency_key", columnList = "userId, idempotencyKey", unique = true),
+    // Expiry rebuild and sweep: range scans by deadline
+    @Index(name = "idx_order_payment_deadline", columnList = "paymentDeadline"),
+    // Delta refresh of the order status projection
+    @Index(name = "idx_order_updated_at", columnList = "updatedAt")
 })
 @Data
 @NoArgsConstructor
@@ -42,12 +49,19 @@ public class Order {
     
     private String paymentId; // Reference to payment
     
+    private String idempotencyKey; // Idempotency-Key header of the creating request, if any
+    
+    private LocalDateTime paymentDeadline; // Cancelled if still unpaid by then, see OrderExpiryScheduler
+    
     @Column(columnDefinition = "TEXT")
-    private String items; // JSON string of order items
+    private String items; // Legacy JSON of order items, new orders use order_items
     
     @Column(nullable = false)
     private Integer version;
     
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long lastPaymentSequence; // Sequence of the last applied PaymentEvent
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -61,6 +75,9 @@ public class Order {
         if (version == null) {
             version = 0;
         }
+        if (lastPaymentSequence == null) {
+            lastPaymentSequence = 0L;
+        }
     }
     
     @PreUpdate
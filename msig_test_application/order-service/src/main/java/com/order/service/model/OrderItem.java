@@ -0,0 +1,43 @@
+package com.order.service.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One line of an order
+ * Mapped for schema generation; rows are written in JDBC batches by OrderItemRepository
+ */
+@Entity
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_item_order", columnList = "orderId"),
+    @Index(name = "idx_order_item_product", columnList = "productId, orderId, quantity, unitPrice")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String orderId;
+    
+    @Column(nullable = false)
+    private String productId;
+    
+    @Column(nullable = false)
+    private String productName;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false)
+    private BigDecimal unitPrice;
+}
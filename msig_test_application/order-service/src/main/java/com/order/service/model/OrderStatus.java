@@ -1,10 +1,56 @@
 package com.order.service.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     CREATED,           // Order created
     PAYMENT_PENDING,   // Waiting for payment
     PAYMENT_PROCESSING,// Payment in progress
     PAID,              // Payment successful
     PAYMENT_FAILED,    // Payment failed
-    CANCELLED          // Order cancelled
-}
\ No newline at end of file
+    CANCELLED;         // Order cancelled
+    
+    // Allowed transitions. PAYMENT_FAILED is not final: the gateway may
+    // still report success for a payment it declined earlier
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    
+    static {
+        TRANSITIONS.put(CREATED, EnumSet.of(PAYMENT_PENDING, CANCELLED));
+        TRANSITIONS.put(PAYMENT_PENDING, EnumSet.of(PAYMENT_PROCESSING, PAID, PAYMENT_FAILED, CANCELLED));
+        TRANSITIONS.put(PAYMENT_PROCESSING, EnumSet.of(PAID, PAYMENT_FAILED, CANCELLED));
+        TRANSITIONS.put(PAYMENT_FAILED, EnumSet.of(PAID, CANCELLED));
+        TRANSITIONS.put(PAID, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+    }
+    
+    /**
+     * Status a payment event moves the order to, null for events that do not
+     */
+    public static OrderStatus forPaymentEvent(String eventType) {
+        return switch (eventType) {
+            case "PAYMENT_SUCCESS" -> PAID;
+            case "PAYMENT_FAILED" -> PAYMENT_FAILED;
+            default -> null;
+        };
+    }
+    
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+    
+    /**
+     * States from which an order may move to next
+     */
+    public static Set<OrderStatus> predecessorsOf(OrderStatus next) {
+        Set<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+        TRANSITIONS.forEach((from, targets) -> {
+            if (targets.contains(next)) {
+                predecessors.add(from);
+            }
+        });
+        return predecessors;
+    }
+}
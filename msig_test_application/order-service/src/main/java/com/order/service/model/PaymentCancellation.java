@@ -0,0 +1,72 @@
+package com.order.service.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a payment that still has to be cancelled in payment-service
+ *
+ * Written in the same transaction that cancels the order, or that finds a
+ * payment of an already cancelled order, and consumed by
+ * PaymentCancellationRelay. Re-enqueueing an order resets its row to
+ * PENDING, so a payment created or captured after an earlier cancel is
+ * cancelled again. nextAttemptAt doubles as a lease like in PaymentInitiation.
+ */
+@Entity
+@Table(name = "payment_cancellations", indexes = {
+    @Index(name = "idx_cancellation_order_id", columnList = "orderId", unique = true),
+    @Index(name = "idx_cancellation_due", columnList = "status, nextAttemptAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentCancellation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private String orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CancellationStatus status;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (attempts == null) {
+            attempts = 0;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,70 @@
+package com.order.service.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a payment that still has to be created in payment-service
+ *
+ * Written in the same transaction as the order and consumed by
+ * PaymentInitiationRelay. nextAttemptAt doubles as a lease: a claimed row
+ * is pushed into the future so other relays skip it until it expires.
+ */
+@Entity
+@Table(name = "payment_initiations", indexes = {
+    @Index(name = "idx_initiation_order_id", columnList = "orderId", unique = true),
+    @Index(name = "idx_initiation_due", columnList = "status, nextAttemptAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentInitiation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private String orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InitiationStatus status;
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (attempts == null) {
+            attempts = 0;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,218 @@
+package com.order.service.projection;
+
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory read model of order status
+ *
+ * Loaded from a snapshot of the orders table at startup, then kept current
+ * two ways: payment transitions this instance applies are recorded once
+ * their transaction commits, with the row as written, and a periodic delta
+ * query on updated_at picks up every other change, including writes made
+ * by other instances. Every entry comes from a committed row, so a payment
+ * event whose update failed or rolled back never shows up here. A row only
+ * replaces an entry if its orders.version is not older.
+ *
+ * Bounded staleness: reads are only answered while the last completed
+ * refresh started less than max-staleness ago; otherwise the caller is
+ * told to go to the database.
+ */
+@Component
+@Slf4j
+public class OrderStatusProjection {
+    
+    private static final String ORDER_ID_PREFIX = "ORD-";
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    
+    private static final String SELECT_SQL = """
+        SELECT order_id, status, version, last_payment_sequence, updated_at
+        FROM orders
+        """;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderStatusTable table;
+    private final long maxStalenessMs;
+    private final Duration overlap;
+    private final int fetchSize;
+    
+    private volatile boolean ready;
+    private volatile long freshAsOfMillis;
+    private LocalDateTime watermark; // Only touched by the refreshing thread
+    
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter staleCounter;
+    
+    public OrderStatusProjection(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.status-projection.expected-size:100000}") int expectedSize,
+            @Value("${order.status-projection.max-staleness-ms:5000}") long maxStalenessMs,
+            @Value("${order.status-projection.overlap-ms:5000}") long overlapMs,
+            @Value("${order.status-projection.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = new OrderStatusTable(expectedSize);
+        this.maxStalenessMs = maxStalenessMs;
+        this.overlap = Duration.ofMillis(overlapMs);
+        this.fetchSize = fetchSize;
+        
+        this.hitCounter = meterRegistry.counter("order.status.projection.reads", "result", "hit");
+        this.missCounter = meterRegistry.counter("order.status.projection.reads", "result", "miss");
+        this.staleCounter = meterRegistry.counter("order.status.projection.reads", "result", "stale");
+        Gauge.builder("order.status.projection.size", table, OrderStatusTable::size)
+            .register(meterRegistry);
+        TimeGauge.builder("order.status.projection.staleness", this, TimeUnit.MILLISECONDS,
+                OrderStatusProjection::stalenessMs)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Status of an order, empty on a miss or when the projection is too stale to answer
+     */
+    public Optional<OrderStatus> find(String orderId) {
+        if (!ready || stalenessMs() > maxStalenessMs) {
+            staleCounter.increment();
+            return Optional.empty();
+        }
+        
+        UUID key = keyOf(orderId);
+        long value = key != null ? table.get(key) : OrderStatusTable.ABSENT;
+        if (value == OrderStatusTable.ABSENT) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        
+        hitCounter.increment();
+        return Optional.of(STATUSES[OrderStatusTable.statusOf(value)]);
+    }
+    
+    /**
+     * Record a status read from the database, e.g. after a miss
+     */
+    public void applyRow(String orderId, OrderStatus status, long version, long sequence) {
+        UUID key = keyOf(orderId);
+        if (key != null) {
+            table.put(key, OrderStatusTable.pack(status.ordinal(), version, sequence),
+                (current, candidate) -> OrderStatusTable.versionOf(candidate) >= OrderStatusTable.versionOf(current));
+        }
+    }
+    
+    /**
+     * Record orders written by the current transaction once it commits
+     * Rolled back writes never reach the projection
+     */
+    public void applyAfterCommit(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            orders.forEach(this::applyRow);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orders.forEach(OrderStatusProjection.this::applyRow);
+            }
+        });
+    }
+    
+    private void applyRow(Order order) {
+        applyRow(order.getOrderId(), order.getStatus(),
+            order.getVersion() != null ? order.getVersion() : 0,
+            order.getLastPaymentSequence() != null ? order.getLastPaymentSequence() : 0);
+    }
+    
+    /**
+     * Postgres only streams with a fetch size when auto-commit is off, hence the transaction
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadSnapshot() {
+        log.info("Loading order status snapshot");
+        long startedAt = System.currentTimeMillis();
+        refreshFrom(null);
+        ready = true;
+        log.info("Order status snapshot loaded: {} orders in {} ms", 
+            table.size(), System.currentTimeMillis() - startedAt);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.status-projection.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        try {
+            // Overlap re-reads rows from transactions that committed after their updated_at
+            refreshFrom(watermark != null ? watermark.minus(overlap) : null);
+        } catch (Exception e) {
+            // Staleness grows until a refresh succeeds, reads then fall back to the database
+            log.error("Order status projection refresh failed", e);
+        }
+    }
+    
+    private void refreshFrom(LocalDateTime since) {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime[] newest = { watermark };
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                since != null ? SELECT_SQL + " WHERE updated_at >= ?" : SELECT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            if (since != null) {
+                statement.setTimestamp(1, Timestamp.valueOf(since));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            applyRow(rs.getString(1), OrderStatus.valueOf(rs.getString(2)), rs.getLong(3), rs.getLong(4));
+            Timestamp updatedAt = rs.getTimestamp(5);
+            if (updatedAt != null && (newest[0] == null || updatedAt.toLocalDateTime().isAfter(newest[0]))) {
+                newest[0] = updatedAt.toLocalDateTime();
+            }
+        });
+        
+        watermark = newest[0];
+        freshAsOfMillis = startedAt;
+    }
+    
+    private double stalenessMs() {
+        return freshAsOfMillis == 0 ? Double.NaN : System.currentTimeMillis() - freshAsOfMillis;
+    }
+    
+    private static UUID keyOf(String orderId) {
+        if (!orderId.startsWith(ORDER_ID_PREFIX)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(orderId.substring(ORDER_ID_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
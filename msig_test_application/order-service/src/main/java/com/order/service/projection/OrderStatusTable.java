@@ -0,0 +1,169 @@
+package com.order.service.projection;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from order UUID to (status, row version, last payment sequence)
+ *
+ * Keys are the two longs of the UUID in "ORD-<uuid>" and values are packed
+ * into one long, so an entry is three array slots and no objects. Versions
+ * and sequences past their field width saturate rather than wrap. Writers
+ * are serialized by the lock; readers use optimistic reads and retry under
+ * the read lock only if a write raced them.
+ */
+final class OrderStatusTable {
+    
+    static final long ABSENT = -1;
+    
+    private static final int STATUS_BITS = 8;
+    private static final int SEQUENCE_BITS = 24;
+    private static final int VERSION_SHIFT = STATUS_BITS + SEQUENCE_BITS;
+    private static final long STATUS_MASK = (1L << STATUS_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_VERSION = Integer.MAX_VALUE;
+    private static final double MAX_LOAD = 0.6;
+    
+    private final StampedLock lock = new StampedLock();
+    private long[] msbs;
+    private long[] lsbs;
+    private long[] values; // 0 marks an empty slot
+    private int size;
+    
+    OrderStatusTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+    
+    /**
+     * Packed (version, sequence, status) value, or ABSENT
+     */
+    long get(UUID key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long value = find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // Raced a resize, arrays of different sizes; retry under the lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Store value unless policy rejects it given the current one
+     * @return true if stored
+     */
+    boolean put(UUID key, long value, UpdatePolicy policy) {
+        long stamp = lock.writeLock();
+        try {
+            long msb = key.getMostSignificantBits();
+            long lsb = key.getLeastSignificantBits();
+            int slot = slotOf(msb, lsb, msbs, lsbs, values);
+            long current = values[slot];
+            if (current != 0 && !policy.accept(current - 1, value)) {
+                return false;
+            }
+            if (current == 0) {
+                if (size + 1 > values.length * MAX_LOAD) {
+                    resize();
+                    slot = slotOf(msb, lsb, msbs, lsbs, values);
+                }
+                msbs[slot] = msb;
+                lsbs[slot] = lsb;
+                size++;
+            }
+            values[slot] = value + 1;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    static long pack(int statusOrdinal, long version, long sequence) {
+        return (Math.min(version, MAX_VERSION) << VERSION_SHIFT)
+            | (Math.min(sequence, MAX_SEQUENCE) << STATUS_BITS)
+            | statusOrdinal;
+    }
+    
+    static int statusOf(long packed) {
+        return (int) (packed & STATUS_MASK);
+    }
+    
+    static long versionOf(long packed) {
+        return packed >>> VERSION_SHIFT;
+    }
+    
+    static long sequenceOf(long packed) {
+        return (packed >>> STATUS_BITS) & MAX_SEQUENCE;
+    }
+    
+    @FunctionalInterface
+    interface UpdatePolicy {
+        boolean accept(long current, long candidate);
+    }
+    
+    private long find(long msb, long lsb) {
+        long[] ms = msbs;
+        long[] ls = lsbs;
+        long[] vs = values;
+        int mask = vs.length - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            long value = vs[slot];
+            if (value == 0) {
+                return ABSENT;
+            }
+            if (ms[slot] == msb && ls[slot] == lsb) {
+                return value - 1;
+            }
+        }
+    }
+    
+    private static int slotOf(long msb, long lsb, long[] ms, long[] ls, long[] vs) {
+        int mask = vs.length - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (vs[slot] != 0 && (ms[slot] != msb || ls[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void resize() {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        long[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slotOf(oldMsbs[i], oldLsbs[i], msbs, lsbs, values);
+                msbs[slot] = oldMsbs[i];
+                lsbs[slot] = oldLsbs[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        values = new long[capacity];
+    }
+    
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,200 @@
+package com.order.service.repository;
+
+import com.order.service.model.CancellationStatus;
+import com.order.service.model.InitiationStatus;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-order writes in plain SQL
+ *
+ * Orders and their payment_initiations and payment_cancellations rows go
+ * out as JDBC batches; Hibernate cannot batch them because of the IDENTITY
+ * keys.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+    
+    private static final String INSERT_ORDER_SQL = """
+        INSERT INTO orders (order_id, user_id, total_amount, currency, status, payment_deadline,
+                            version, last_payment_sequence, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?)
+        """;
+    
+    private static final String INSERT_INITIATION_SQL = """
+        INSERT INTO payment_initiations (order_id, status, attempts, next_attempt_at, created_at, updated_at)
+        VALUES (?, ?, 0, ?, ?, ?)
+        """;
+    
+    private static final String INITIATED_SQL = """
+        UPDATE payment_initiations
+        SET status = ?, last_error = NULL, updated_at = ?
+        WHERE order_id = ?
+        """;
+    
+    // Same rule as PaymentInitiationService.markInitiated: an event may already have moved the order on
+    private static final String ORDER_INITIATED_SQL = """
+        UPDATE orders
+        SET payment_id = ?,
+            status = CASE WHEN status = ? THEN ? ELSE status END,
+            updated_at = ?,
+            version = version + 1
+        WHERE order_id = ?
+        """;
+    
+    // Only unpaid orders whose deadline has passed; an order paid meanwhile matches no row
+    private static final String EXPIRE_SQL = """
+        UPDATE orders
+        SET status = ?, updated_at = ?, version = version + 1
+        WHERE order_id = ?
+          AND status IN (?, ?)
+          AND payment_deadline <= ?
+        """;
+    
+    private static final String FAIL_INITIATION_SQL = """
+        UPDATE payment_initiations
+        SET status = ?, last_error = ?, updated_at = ?
+        WHERE order_id = ? AND status = ?
+        """;
+    
+    // An order that already has a row is reset to PENDING, due now
+    private static final String UPSERT_CANCELLATION = """
+        ON CONFLICT (order_id) DO UPDATE
+        SET status = EXCLUDED.status, attempts = 0, next_attempt_at = EXCLUDED.next_attempt_at,
+            last_error = NULL, updated_at = EXCLUDED.updated_at
+        """;
+    
+    private static final String ENQUEUE_CANCELLATION_SQL = """
+        INSERT INTO payment_cancellations (order_id, status, attempts, next_attempt_at, created_at, updated_at)
+        VALUES (?, ?, 0, ?, ?, ?)
+        """ + UPSERT_CANCELLATION;
+    
+    private static final String ENQUEUE_CANCELLATION_IF_CANCELLED_SQL = """
+        INSERT INTO payment_cancellations (order_id, status, attempts, next_attempt_at, created_at, updated_at)
+        SELECT order_id, ?, 0, ?, ?, ?
+        FROM orders
+        WHERE order_id = ? AND status = ?
+        """ + UPSERT_CANCELLATION;
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * @param orders with createdAt set
+     */
+    public void insertOrders(List<Order> orders) {
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders, orders.size(), (ps, order) -> {
+            Timestamp createdAt = Timestamp.valueOf(order.getCreatedAt());
+            ps.setString(1, order.getOrderId());
+            ps.setString(2, order.getUserId());
+            ps.setBigDecimal(3, order.getTotalAmount());
+            ps.setString(4, order.getCurrency());
+            ps.setString(5, order.getStatus().name());
+            ps.setTimestamp(6, Timestamp.valueOf(order.getPaymentDeadline()));
+            ps.setTimestamp(7, createdAt);
+            ps.setTimestamp(8, createdAt);
+        });
+    }
+    
+    /**
+     * Pending initiations, due immediately
+     */
+    public void insertInitiations(Collection<String> orderIds, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            rows.add(new Object[] { orderId, InitiationStatus.PENDING.name(), now, now, now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_INITIATION_SQL, rows);
+    }
+    
+    /**
+     * Move unpaid orders past their deadline to CANCELLED
+     * @return the orders that were moved
+     */
+    public List<String> expireOrders(List<String> orderIds, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            rows.add(new Object[] {
+                OrderStatus.CANCELLED.name(), now, orderId,
+                OrderStatus.PAYMENT_PENDING.name(), OrderStatus.PAYMENT_PROCESSING.name(), now
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(EXPIRE_SQL, rows);
+        
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                expired.add(orderIds.get(i));
+            }
+        }
+        return expired;
+    }
+    
+    /**
+     * Stop initiations that have not reached payment-service yet
+     */
+    public void failInitiations(Collection<String> orderIds, String error, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            rows.add(new Object[] {
+                InitiationStatus.FAILED.name(), error, now, orderId, InitiationStatus.PENDING.name()
+            });
+        }
+        jdbcTemplate.batchUpdate(FAIL_INITIATION_SQL, rows);
+    }
+    
+    /**
+     * Queue the payments of the given orders for cancellation in payment-service
+     */
+    public void enqueueCancellations(Collection<String> orderIds, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            rows.add(new Object[] { orderId, CancellationStatus.PENDING.name(), now, now, now });
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_CANCELLATION_SQL, rows);
+    }
+    
+    /**
+     * enqueueCancellations for those of the given orders that are CANCELLED
+     * @return the orders that were queued
+     */
+    public List<String> enqueueCancellationsIfCancelled(List<String> orderIds, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (String orderId : orderIds) {
+            rows.add(new Object[] {
+                CancellationStatus.PENDING.name(), now, now, now, orderId, OrderStatus.CANCELLED.name()
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(ENQUEUE_CANCELLATION_IF_CANCELLED_SQL, rows);
+        
+        List<String> queued = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                queued.add(orderIds.get(i));
+            }
+        }
+        return queued;
+    }
+    
+    public void markInitiated(Map<String, String> paymentIdByOrderId, Timestamp now) {
+        List<Object[]> initiations = new ArrayList<>(paymentIdByOrderId.size());
+        List<Object[]> orders = new ArrayList<>(paymentIdByOrderId.size());
+        paymentIdByOrderId.forEach((orderId, paymentId) -> {
+            initiations.add(new Object[] { InitiationStatus.INITIATED.name(), now, orderId });
+            orders.add(new Object[] {
+                paymentId, OrderStatus.PAYMENT_PENDING.name(), OrderStatus.PAYMENT_PROCESSING.name(), now, orderId
+            });
+        });
+        jdbcTemplate.batchUpdate(INITIATED_SQL, initiations);
+        jdbcTemplate.batchUpdate(ORDER_INITIATED_SQL, orders);
+    }
+}
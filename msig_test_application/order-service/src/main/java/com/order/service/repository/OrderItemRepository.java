@@ -0,0 +1,121 @@
+package com.order.service.repository;
+
+import com.order.service.dto.CreateOrderRequest;
+import com.order.service.dto.OrderItemResponse;
+import com.order.service.dto.ProductSalesSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order lines in plain SQL
+ *
+ * Inserts go out as one JDBC batch per order; Hibernate cannot batch them
+ * because of the IDENTITY key. Reads and the product aggregate are served
+ * by the order_id and product_id indexes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderItemRepository {
+    
+    private static final String INSERT_SQL = """
+        INSERT INTO order_items (order_id, product_id, product_name, quantity, unit_price)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+    
+    private static final RowMapper<OrderItemResponse> ITEM_MAPPER = (rs, rowNum) -> {
+        BigDecimal unitPrice = rs.getBigDecimal("unit_price");
+        int quantity = rs.getInt("quantity");
+        return OrderItemResponse.builder()
+            .productId(rs.getString("product_id"))
+            .productName(rs.getString("product_name"))
+            .quantity(quantity)
+            .unitPrice(unitPrice)
+            .lineTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)))
+            .build();
+    };
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public void insertAll(String orderId, List<CreateOrderRequest.OrderItem> items) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setString(1, orderId);
+            ps.setString(2, item.getProductId());
+            ps.setString(3, item.getProductName());
+            ps.setInt(4, item.getQuantity());
+            ps.setBigDecimal(5, item.getPrice());
+        });
+    }
+    
+    /**
+     * Lines of several orders as a single batch
+     */
+    public void insertAll(Map<String, List<CreateOrderRequest.OrderItem>> itemsByOrderId) {
+        List<Object[]> rows = new ArrayList<>();
+        itemsByOrderId.forEach((orderId, items) -> {
+            for (CreateOrderRequest.OrderItem item : items) {
+                rows.add(new Object[] {
+                    orderId, item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice()
+                });
+            }
+        });
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, rows);
+    }
+    
+    public List<OrderItemResponse> findByOrderId(String orderId) {
+        return jdbcTemplate.getJdbcTemplate().query("""
+            SELECT product_id, product_name, quantity, unit_price
+            FROM order_items
+            WHERE order_id = ?
+            ORDER BY id
+            """, ITEM_MAPPER, orderId);
+    }
+    
+    /**
+     * Lines of several orders in one query, keyed by orderId
+     */
+    public Map<String, List<OrderItemResponse>> findByOrderIds(Collection<String> orderIds) {
+        Map<String, List<OrderItemResponse>> byOrder = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return byOrder;
+        }
+        jdbcTemplate.query("""
+            SELECT order_id, product_id, product_name, quantity, unit_price
+            FROM order_items
+            WHERE order_id IN (:orderIds)
+            ORDER BY id
+            """, new MapSqlParameterSource("orderIds", orderIds), (ResultSet rs) -> {
+                byOrder.computeIfAbsent(rs.getString("order_id"), k -> new ArrayList<>())
+                    .add(ITEM_MAPPER.mapRow(rs, 0));
+            });
+        return byOrder;
+    }
+    
+    /**
+     * Covered by idx_order_item_product, no table or JSON access
+     */
+    public ProductSalesSummary summarizeProduct(String productId) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("""
+            SELECT COUNT(DISTINCT order_id) AS orders,
+                   COALESCE(SUM(quantity), 0) AS quantity,
+                   COALESCE(SUM(quantity * unit_price), 0) AS revenue
+            FROM order_items
+            WHERE product_id = ?
+            """, (rs, rowNum) -> ProductSalesSummary.builder()
+                .productId(productId)
+                .orders(rs.getLong("orders"))
+                .quantity(rs.getLong("quantity"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build(), productId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.order.service.repository;
+
+import com.order.service.dto.OrderCursor;
+import com.order.service.dto.OrderSummary;
+import com.order.service.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-only order history queries in plain SQL
+ *
+ * Pages are addressed by keyset (created_at, id) within a user, served by
+ * idx_user_keyset, so each page costs the same at any depth. The legacy
+ * items column is only read when items are asked for.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderQueryRepository {
+    
+    private static final String SUMMARY_COLUMNS = """
+        SELECT id, order_id, user_id, total_amount, currency, status, payment_id, created_at
+        """;
+    
+    private static final RowMapper<OrderSummary> SUMMARY_MAPPER = (rs, rowNum) -> mapSummary(rs, false);
+    
+    private static final RowMapper<OrderSummary> SUMMARY_WITH_ITEMS_MAPPER = (rs, rowNum) -> mapSummary(rs, true);
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    /**
+     * Newest first. Returns up to limit rows strictly after the cursor
+     */
+    public List<OrderSummary> findPageByUser(String userId, OrderCursor after, int limit,
+                                             boolean includeLegacyItems) {
+        StringBuilder sql = new StringBuilder(SUMMARY_COLUMNS);
+        if (includeLegacyItems) {
+            sql.append(", items");
+        }
+        sql.append(" FROM orders WHERE user_id = :userId");
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        
+        if (after != null) {
+            // Row-value comparison lets Postgres seek directly in the (user_id, created_at, id) index
+            sql.append(" AND (created_at, id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", after.createdAt());
+            params.addValue("afterId", after.id());
+        }
+        
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        
+        return jdbcTemplate.query(sql.toString(), params,
+            includeLegacyItems ? SUMMARY_WITH_ITEMS_MAPPER : SUMMARY_MAPPER);
+    }
+    
+    /**
+     * Every order of a user, newest first, handed over row by row
+     * Must run in a transaction for Postgres to use a server-side cursor
+     */
+    public void streamByUser(String userId, int fetchSize, Consumer<OrderSummary> consumer) {
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            var statement = connection.prepareStatement(SUMMARY_COLUMNS
+                + " FROM orders WHERE user_id = ? ORDER BY created_at DESC, id DESC",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, userId);
+            return statement;
+        }, (ResultSet rs) -> {
+            consumer.accept(mapSummary(rs, false));
+        });
+    }
+    
+    private static OrderSummary mapSummary(ResultSet rs, boolean withLegacyItems) throws SQLException {
+        return OrderSummary.builder()
+            .id(rs.getLong("id"))
+            .orderId(rs.getString("order_id"))
+            .userId(rs.getString("user_id"))
+            .totalAmount(rs.getBigDecimal("total_amount"))
+            .currency(rs.getString("currency"))
+            .status(OrderStatus.valueOf(rs.getString("status")))
+            .paymentId(rs.getString("payment_id"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .legacyItems(withLegacyItems ? rs.getString("items") : null)
+            .build();
+    }
+}
@@ -1,12 +1,16 @@
 package com.order.service.repository;
 
 import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +23,30 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
     Optional<Order> findByOrderIdWithLock(String orderId);
     
-    List<Order> findByUserId(String userId);
+    List<Order> findByOrderIdIn(Collection<String> orderIds);
     
     Optional<Order> findByPaymentId(String paymentId);
+    
+    Optional<Order> findByUserIdAndIdempotencyKey(String userId, String idempotencyKey);
+    
+    /**
+     * Compare-and-set for payment events: applies only if the order is in one
+     * of the allowed predecessor states and the event is newer than the last
+     * applied one. A null sequence skips the ordering check.
+     * @return 1 if applied, 0 if stale, duplicate or not allowed
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.status = :next,
+            o.lastPaymentSequence = COALESCE(:sequence, o.lastPaymentSequence),
+            o.paymentId = COALESCE(o.paymentId, :paymentId),
+            o.updatedAt = :now,
+            o.version = o.version + 1
+        WHERE o.orderId = :orderId
+          AND o.status IN :predecessors
+          AND (:sequence IS NULL OR o.lastPaymentSequence < :sequence)
+        """)
+    int applyPaymentTransition(String orderId, OrderStatus next, Collection<OrderStatus> predecessors,
+                               Long sequence, String paymentId, LocalDateTime now);
 }
\ No newline at end of file
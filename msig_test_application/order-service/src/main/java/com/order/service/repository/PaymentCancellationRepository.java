@@ -0,0 +1,42 @@
+package com.order.service.repository;
+
+import com.order.service.model.PaymentCancellation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentCancellationRepository extends JpaRepository<PaymentCancellation, Long> {
+    
+    /**
+     * Lock due rows, skipping rows already locked by another relay
+     */
+    @Query(value = """
+        SELECT * FROM payment_cancellations
+        WHERE status = 'PENDING' AND next_attempt_at <= :now
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<PaymentCancellation> lockDue(LocalDateTime now, int limit);
+    
+    /**
+     * Complete claimed rows that still hold the claim's lease
+     * A row re-enqueued meanwhile has a new nextAttemptAt and stays PENDING
+     */
+    @Modifying
+    @Query("""
+        UPDATE PaymentCancellation c
+        SET c.status = com.order.service.model.CancellationStatus.CANCELLED, c.lastError = NULL, c.updatedAt = :now
+        WHERE c.id IN :ids AND c.nextAttemptAt = :leaseUntil
+        """)
+    int markCancelled(Collection<Long> ids, LocalDateTime leaseUntil, LocalDateTime now);
+    
+    @Query("SELECT COUNT(c) FROM PaymentCancellation c WHERE c.status = com.order.service.model.CancellationStatus.PENDING")
+    long countPending();
+}
@@ -0,0 +1,42 @@
+package com.order.service.repository;
+
+import com.order.service.model.PaymentInitiation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentInitiationRepository extends JpaRepository<PaymentInitiation, Long> {
+    
+    Optional<PaymentInitiation> findByOrderId(String orderId);
+    
+    /**
+     * Lock due rows, skipping rows already locked by another relay
+     */
+    @Query(value = """
+        SELECT * FROM payment_initiations
+        WHERE status = 'PENDING' AND next_attempt_at <= :now
+        ORDER BY next_attempt_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<PaymentInitiation> lockDue(LocalDateTime now, int limit);
+    
+    /**
+     * Lock the due rows of the given orders, skipping rows a relay holds
+     */
+    @Query(value = """
+        SELECT * FROM payment_initiations
+        WHERE status = 'PENDING' AND next_attempt_at <= :now AND order_id IN (:orderIds)
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<PaymentInitiation> lockDueByOrderIds(LocalDateTime now, Collection<String> orderIds);
+    
+    @Query("SELECT COUNT(p) FROM PaymentInitiation p WHERE p.status = com.order.service.model.InitiationStatus.PENDING")
+    long countPending();
+}
@@ -0,0 +1,133 @@
+package com.order.service.service;
+
+import com.order.service.dto.BulkOrderResponse;
+import com.order.service.dto.BulkOrderResult;
+import com.order.service.dto.CreateOrderRequest;
+import com.order.service.exception.InvalidAmountException;
+import com.order.service.expiry.OrderExpiryScheduler;
+import com.order.service.model.Money;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates a batch of orders from one request
+ *
+ * Every order is validated on its own and invalid ones are reported
+ * without failing the rest. The valid ones are inserted in one transaction
+ * of batched writes, then their payments are started with a single bulk
+ * call to payment-service. Payments that cannot be started here are left
+ * to PaymentInitiationRelay, exactly like a single createOrder.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BulkOrderService {
+    
+    private final OrderService orderService;
+    private final PaymentInitiationRelay initiationRelay;
+    private final OrderExpiryScheduler expiryScheduler;
+    private final Validator validator;
+    
+    public BulkOrderResponse createOrders(List<CreateOrderRequest> requests) {
+        log.info("Creating {} orders in bulk", requests.size());
+        
+        BulkOrderResult[] results = new BulkOrderResult[requests.size()];
+        List<Order> orders = new ArrayList<>(requests.size());
+        Map<String, List<CreateOrderRequest.OrderItem>> items = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            Money total = null;
+            if (errors.isEmpty()) {
+                try {
+                    total = Money.total(request.getCurrency(), request.getItems(),
+                        CreateOrderRequest.OrderItem::getPrice, CreateOrderRequest.OrderItem::getQuantity);
+                } catch (InvalidAmountException e) {
+                    errors = List.of(e.getMessage());
+                }
+            }
+            if (!errors.isEmpty()) {
+                results[i] = BulkOrderResult.builder().index(i).errors(errors).build();
+                continue;
+            }
+            
+            Order order = Order.builder()
+                .orderId(generateOrderId())
+                .userId(request.getUserId())
+                .totalAmount(total.toBigDecimal())
+                .currency(total.currency())
+                .status(OrderStatus.PAYMENT_PENDING)
+                .paymentDeadline(expiryScheduler.deadlineFor(now))
+                .version(0)
+                .lastPaymentSequence(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+            orders.add(order);
+            items.put(order.getOrderId(), request.getItems());
+            results[i] = BulkOrderResult.builder()
+                .index(i)
+                .orderId(order.getOrderId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .build();
+        }
+        
+        Map<String, String> paymentIds = Map.of();
+        if (!orders.isEmpty()) {
+            orderService.insertOrders(orders, items);
+            for (Order order : orders) {
+                expiryScheduler.schedule(order.getOrderId(), order.getPaymentDeadline());
+            }
+            paymentIds = initiationRelay.initiateBatch(orders);
+        }
+        
+        for (BulkOrderResult result : results) {
+            String paymentId = result.getOrderId() != null ? paymentIds.get(result.getOrderId()) : null;
+            if (paymentId != null) {
+                result.setPaymentId(paymentId);
+                result.setStatus(OrderStatus.PAYMENT_PROCESSING);
+            }
+        }
+        
+        log.info("Bulk create: {} accepted, {} rejected, {} payments initiated",
+            orders.size(), requests.size() - orders.size(), paymentIds.size());
+        
+        return BulkOrderResponse.builder()
+            .accepted(orders.size())
+            .rejected(requests.size() - orders.size())
+            .paymentsInitiated(paymentIds.size())
+            .results(Arrays.asList(results))
+            .build();
+    }
+    
+    private List<String> validate(CreateOrderRequest request) {
+        if (request == null) {
+            return List.of("Order is required");
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<CreateOrderRequest> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+    
+    private String generateOrderId() {
+        return "ORD-" + UUID.randomUUID().toString();
+    }
+}
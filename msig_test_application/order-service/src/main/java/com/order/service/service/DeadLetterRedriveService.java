@@ -0,0 +1,95 @@
+package com.order.service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends dead-lettered records back to the topic they originally failed on
+ *
+ * Uses its own consumer group, so committed progress through a DLT is kept
+ * between calls and a record is redriven at most once.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterRedriveService {
+    
+    private static final String REDRIVE_GROUP = "order-service-dlt-redrive";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    /**
+     * @return number of records republished
+     */
+    public synchronized int redrive(String dltTopic, int max) {
+        log.info("Redriving up to {} records from {}", max, dltTopic);
+        
+        int redriven = 0;
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(REDRIVE_GROUP, "redrive")) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(dltTopic)) {
+                partitions.add(new TopicPartition(dltTopic, info.partition()));
+            }
+            consumer.assign(partitions);
+            
+            while (redriven < max) {
+                ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                Set<TopicPartition> stopped = new HashSet<>();
+                for (ConsumerRecord<String, Object> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (redriven >= max) {
+                        // Leave the rest for the next call
+                        if (stopped.add(partition)) {
+                            consumer.seek(partition, record.offset());
+                        }
+                        continue;
+                    }
+                    sends.add(kafkaTemplate.send(originalTopic(record), record.key(), record.value()));
+                    redriven++;
+                }
+                
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+                consumer.commitSync();
+            }
+        }
+        
+        meterRegistry.counter("order.kafka.dlt.redriven", "topic", dltTopic).increment(redriven);
+        log.info("Redrove {} records from {}", redriven, dltTopic);
+        return redriven;
+    }
+    
+    private String originalTopic(ConsumerRecord<String, Object> record) {
+        Header header = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        if (header != null) {
+            return new String(header.value(), StandardCharsets.UTF_8);
+        }
+        return record.topic().substring(0, record.topic().length() - "-dlt".length());
+    }
+}
@@ -0,0 +1,140 @@
+package com.order.service.service;
+
+import com.order.service.dto.CreateOrderRequest;
+import com.order.service.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes POST /api/orders safe to retry with an Idempotency-Key
+ *
+ * Keys are scoped to the user and resolved in three steps:
+ * 1. A bounded LRU cache of responses created on this instance
+ * 2. Requests for a key already being created on this instance wait for
+ *    that creation instead of starting their own
+ * 3. The unique (userId, idempotencyKey) index, which also catches
+ *    duplicates racing on another instance
+ *
+ * A repeated key returns the original order whatever the body says.
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+    
+    public record Result(OrderResponse order, boolean replayed) {
+    }
+    
+    /**
+     * Composite key, so no separator can make two users' keys collide
+     */
+    private record Key(String userId, String idempotencyKey) {
+    }
+    
+    private final OrderService orderService;
+    private final Map<Key, OrderResponse> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<OrderResponse>> inFlight = new ConcurrentHashMap<>();
+    
+    private final Counter createdCounter;
+    private final Counter cacheHitCounter;
+    private final Counter joinedCounter;
+    private final Counter storedHitCounter;
+    
+    public OrderIdempotencyService(
+            OrderService orderService,
+            MeterRegistry meterRegistry,
+            @Value("${order.idempotency.cache-size:10000}") int cacheSize) {
+        this.orderService = orderService;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, OrderResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        
+        this.createdCounter = meterRegistry.counter("order.idempotency", "result", "created");
+        this.cacheHitCounter = meterRegistry.counter("order.idempotency", "result", "cache_hit");
+        this.joinedCounter = meterRegistry.counter("order.idempotency", "result", "joined");
+        this.storedHitCounter = meterRegistry.counter("order.idempotency", "result", "stored_hit");
+    }
+    
+    public Result createOrder(CreateOrderRequest request, String idempotencyKey) {
+        Key key = new Key(request.getUserId(), idempotencyKey);
+        
+        OrderResponse cached = cached(key);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return new Result(cached, true);
+        }
+        
+        CompletableFuture<OrderResponse> creation = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> existing = inFlight.putIfAbsent(key, creation);
+        if (existing != null) {
+            log.info("Joining in-flight creation for idempotency key: {}", idempotencyKey);
+            joinedCounter.increment();
+            return new Result(join(existing), true);
+        }
+        
+        try {
+            Result result = createOrFind(request, idempotencyKey);
+            synchronized (cache) {
+                cache.put(key, result.order());
+            }
+            creation.complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            creation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, creation);
+        }
+    }
+    
+    private Result createOrFind(CreateOrderRequest request, String idempotencyKey) {
+        Optional<OrderResponse> stored = orderService.findByIdempotencyKey(request.getUserId(), idempotencyKey);
+        if (stored.isPresent()) {
+            storedHitCounter.increment();
+            return new Result(stored.get(), true);
+        }
+        
+        try {
+            OrderResponse created = orderService.createOrder(request, idempotencyKey);
+            createdCounter.increment();
+            return new Result(created, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it between our lookup and insert
+            OrderResponse raced = orderService.findByIdempotencyKey(request.getUserId(), idempotencyKey)
+                .orElseThrow(() -> e);
+            storedHitCounter.increment();
+            return new Result(raced, true);
+        }
+    }
+    
+    private OrderResponse cached(Key key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+    
+    private static OrderResponse join(CompletableFuture<OrderResponse> creation) {
+        try {
+            return creation.join();
+        } catch (CompletionException e) {
+            // Same failure as the request that did the work
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,174 +1,188 @@
 package com.order.service.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.order.service.client.PaymentServiceClient;
 import com.order.service.dto.*;
-import com.order.service.dto.CreatePaymentRequest;
 import com.order.service.event.OrderEvent;
 import com.order.service.event.PaymentEvent;
-import com.order.service.exception.PaymentInitiationException;
 import com.order.service.exception.OrderNotFoundException;
+import com.order.service.expiry.OrderExpiryScheduler;
 import com.order.service.model.*;
+import com.order.service.projection.OrderStatusProjection;
+import com.order.service.stats.RollingStats;
+import com.order.service.repository.OrderBatchRepository;
+import com.order.service.repository.OrderItemRepository;
+import com.order.service.repository.OrderQueryRepository;
 import com.order.service.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class OrderService {
     
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    
     private final OrderRepository orderRepository;
-    private final PaymentServiceClient paymentClient;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final PaymentInitiationService initiationService;
+    private final OrderStatusProjection statusProjection;
+    private final OrderExpiryScheduler expiryScheduler;
+    private final RollingStats rollingStats;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper objectMapper;
     
+    @Value("${order.query.stream-fetch-size:500}")
+    private int streamFetchSize;
+    
+    /**
+     * Insert the order as PAYMENT_PENDING and queue its payment initiation
+     *
+     * payment-service is called later by PaymentInitiationRelay, so this
+     * transaction does not hold a connection across the remote call.
+     */
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        return createOrder(request, null);
+    }
+    
+    /**
+     * createOrder recording the client's Idempotency-Key
+     * A key already used by the same user fails with DataIntegrityViolationException
+     */
+    @Transactional
+    public OrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
         log.info("Creating order for user: {}", request.getUserId());
         
-        //  Total
-        BigDecimal totalAmount = request.getItems().stream()
-            .map(item -> item.getPrice().multiply(
-                BigDecimal.valueOf(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        //  Total, in exact minor units of the order currency
+        Money total = Money.total(request.getCurrency(), request.getItems(),
+            CreateOrderRequest.OrderItem::getPrice, CreateOrderRequest.OrderItem::getQuantity);
         
         // Create order
+        LocalDateTime now = LocalDateTime.now();
         Order order = Order.builder()
             .orderId(generateOrderId())
             .userId(request.getUserId())
-            .totalAmount(totalAmount)
-            .currency(request.getCurrency())
-            .status(OrderStatus.CREATED)
-            .items(serializeItems(request.getItems()))
+            .totalAmount(total.toBigDecimal())
+            .currency(total.currency())
+            .status(OrderStatus.PAYMENT_PENDING)
+            .idempotencyKey(idempotencyKey)
+            .paymentDeadline(expiryScheduler.deadlineFor(now))
             .version(0)
             .build();
         
         order = orderRepository.save(order);
+        orderItemRepository.insertAll(order.getOrderId(), request.getItems());
+        initiationService.enqueue(order.getOrderId());
+        // A rollback leaves a timer for a missing order, which expires nothing
+        expiryScheduler.schedule(order.getOrderId(), order.getPaymentDeadline());
+        rollingStats.record(OrderStatus.PAYMENT_PENDING.name(), order.getCurrency());
         log.info("Order created: {}", order.getOrderId());
         
-        // Update status ke payment pending
-        order.setStatus(OrderStatus.PAYMENT_PENDING);
-        orderRepository.save(order);
-        
-        // Initiate payment secara asynchronous
-        initiatePayment(order);
-        
         return mapToResponse(order);
     }
     
-    @Retryable(
-        maxAttempts = 3,
-        backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
-    public void initiatePayment(Order order) {
-        log.info("Initiating payment for order: {}", order.getOrderId());
-        
-        try {
-            // Generate idempotency key
-            String idempotencyKey = generatePaymentIdempotencyKey(order.getOrderId());
-            
-            // Create payment request
-            CreatePaymentRequest paymentRequest = new CreatePaymentRequest();
-            paymentRequest.setOrderId(order.getOrderId());
-            paymentRequest.setAmount(order.getTotalAmount());
-            paymentRequest.setCurrency(order.getCurrency());
-            paymentRequest.setIdempotencyKey(idempotencyKey);
-            
-            PaymentResponse paymentResponse = paymentClient.createPayment(
-                paymentRequest, idempotencyKey);
-            
-            // Update order with payment reference
-            Order updated = orderRepository.findByOrderId(order.getOrderId())
-                .orElseThrow();
-            updated.setPaymentId(paymentResponse.getPaymentId());
-            updated.setStatus(OrderStatus.PAYMENT_PROCESSING);
-            orderRepository.save(updated);
-            
-            log.info("Payment initiated for order: {}, paymentId: {}", 
-                order.getOrderId(), paymentResponse.getPaymentId());
-            
-        } catch (Exception e) {
-            log.error("Failed to initiate payment for order: {}", 
-                order.getOrderId(), e);
-            
-            // Update order status to payment failed
-            Order updated = orderRepository.findByOrderId(order.getOrderId())
-                .orElseThrow();
-            updated.setStatus(OrderStatus.PAYMENT_FAILED);
-            orderRepository.save(updated);
-            
-            throw new PaymentInitiationException(
-                "Failed to initiate payment", e);
+    /**
+     * Insert built orders with their lines and payment initiations, as batched writes
+     * @param orders PAYMENT_PENDING, with createdAt set
+     */
+    @Transactional
+    public void insertOrders(List<Order> orders, Map<String, List<CreateOrderRequest.OrderItem>> items) {
+        orderBatchRepository.insertOrders(orders);
+        orderItemRepository.insertAll(items);
+        initiationService.enqueueAll(items.keySet());
+        for (Order order : orders) {
+            rollingStats.record(OrderStatus.PAYMENT_PENDING.name(), order.getCurrency());
         }
     }
     
     /**
      * Handle payment events from Kafka
+     *
+     * Applied with a single conditional UPDATE instead of lock, read, write:
+     * it only matches if the order is in an allowed predecessor state (see
+     * OrderStatus) and the event sequence is newer than the last applied
+     * one. Redelivered, stale and out-of-order events match no row.
      */
     @Transactional
     public void handlePaymentEvent(PaymentEvent event) {
-        log.info("Received payment event: {} for payment: {}", 
-            event.getEventType(), event.getPaymentId());
-        
-        // Find order by payment ID
-        Order order = orderRepository.findByPaymentId(event.getPaymentId())
-            .orElseGet(() -> {
-                log.warn("No order found for payment: {}", event.getPaymentId());
-                return null;
-            });
+        log.info("Received payment event: {} for payment: {}, sequence: {}", 
+            event.getEventType(), event.getPaymentId(), event.getSequence());
         
-        if (order == null) {
+        if ("PAYMENT_REFUND_REQUIRED".equals(event.getEventType())) {
+            // Captured after the order gave up on it, the order keeps its status
+            log.error("Payment {} of order {} was captured after cancellation, refund required",
+                event.getPaymentId(), event.getOrderId());
             return;
         }
         
-        // Lock order to prevent concurrent updates
-        order = orderRepository.findByOrderIdWithLock(order.getOrderId())
-            .orElseThrow();
+        OrderStatus next = OrderStatus.forPaymentEvent(event.getEventType());
+        if (next == null) {
+            log.debug("Ignoring payment event type: {}", event.getEventType());
+            return;
+        }
         
-        // Check version to prevent processing old events
-        if (event.getVersion() != null && 
-            order.getVersion() >= event.getVersion()) {
-            log.warn("Ignoring old payment event. Order version: {}, Event version: {}", 
-                order.getVersion(), event.getVersion());
+        String orderId = resolveOrderId(event);
+        if (orderId == null) {
+            log.warn("No order found for payment: {}", event.getPaymentId());
             return;
         }
         
-        // Update order status based on payment event
-        switch (event.getEventType()) {
-            case "PAYMENT_SUCCESS":
-                if (order.getStatus() != OrderStatus.PAID) {
-                    order.setStatus(OrderStatus.PAID);
-                    orderRepository.save(order);
-                    
-                    log.info("Order {} marked as PAID", order.getOrderId());
-                    
-                    // Publish order event
-                    publishOrderEvent(order, "ORDER_PAID");
-                }
-                break;
-                
-            case "PAYMENT_FAILED":
-                if (order.getStatus() != OrderStatus.PAYMENT_FAILED) {
-                    order.setStatus(OrderStatus.PAYMENT_FAILED);
-                    orderRepository.save(order);
-                    
-                    log.info("Order {} marked as PAYMENT_FAILED", order.getOrderId());
-                    
-                    // Publish order event
-                    publishOrderEvent(order, "ORDER_PAYMENT_FAILED");
-                }
-                break;
+        int updated = orderRepository.applyPaymentTransition(orderId, next,
+            OrderStatus.predecessorsOf(next), event.getSequence(), event.getPaymentId(),
+            LocalDateTime.now());
+        if (updated == 0) {
+            if (next == OrderStatus.PAID && !orderBatchRepository.enqueueCancellationsIfCancelled(
+                    List.of(orderId), Timestamp.valueOf(LocalDateTime.now())).isEmpty()) {
+                // payment-service flags the captured payment REFUND_REQUIRED when the cancellation reaches it
+                log.error("Payment {} succeeded for cancelled order: {}, cancellation queued for refund",
+                    event.getPaymentId(), orderId);
+                return;
+            }
+            log.warn("Ignoring payment event {} for order: {}, stale or transition to {} not allowed", 
+                event.getEventType(), orderId, next);
+            return;
+        }
+        
+        log.info("Order {} marked as {}", orderId, next);
+        
+        // Publish order event
+        Order order = orderRepository.findByOrderId(orderId).orElseThrow();
+        statusProjection.applyAfterCommit(List.of(order));
+        rollingStats.record(next.name(), order.getCurrency());
+        publishOrderEvent(order, next == OrderStatus.PAID ? "ORDER_PAID" : "ORDER_PAYMENT_FAILED");
+    }
+    
+    private String resolveOrderId(PaymentEvent event) {
+        if (event.getOrderId() != null) {
+            return event.getOrderId();
         }
+        
+        // Events published before orderId was carried
+        return orderRepository.findByPaymentId(event.getPaymentId())
+            .map(Order::getOrderId)
+            .orElse(null);
     }
     
     /**
@@ -181,6 +195,125 @@ public class OrderService {
         return mapToResponse(order);
     }
     
+    /**
+     * Order created by an earlier request of the user with this Idempotency-Key
+     */
+    public Optional<OrderResponse> findByIdempotencyKey(String userId, String idempotencyKey) {
+        return orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+            .map(this::mapToResponse);
+    }
+    
+    /**
+     * Order status for pollers, served from the projection when it is fresh enough
+     */
+    public OrderStatusResponse getOrderStatus(String orderId) {
+        Optional<OrderStatus> projected = statusProjection.find(orderId);
+        if (projected.isPresent()) {
+            return OrderStatusResponse.builder()
+                .orderId(orderId)
+                .status(projected.get())
+                .source("PROJECTION")
+                .build();
+        }
+        
+        Order order = orderRepository.findByOrderId(orderId)
+            .orElseThrow(() -> new OrderNotFoundException(orderId));
+        statusProjection.applyRow(orderId, order.getStatus(), 
+            order.getVersion() != null ? order.getVersion() : 0,
+            order.getLastPaymentSequence() != null ? order.getLastPaymentSequence() : 0);
+        
+        return OrderStatusResponse.builder()
+            .orderId(orderId)
+            .status(order.getStatus())
+            .source("DATABASE")
+            .build();
+    }
+    
+    /**
+     * One page of a user's orders, newest first
+     * Items cost one extra query for the whole page and are only read when asked for
+     */
+    @Transactional(readOnly = true)
+    public OrderPage findOrders(String userId, String after, int limit, boolean includeItems) {
+        OrderCursor cursor = after != null ? OrderCursor.decode(after) : null;
+        
+        List<OrderSummary> rows = orderQueryRepository.findPageByUser(userId, cursor, limit + 1, includeItems);
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            OrderSummary last = rows.get(limit - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        if (includeItems) {
+            Map<String, List<OrderItemResponse>> items = orderItemRepository.findByOrderIds(
+                rows.stream().map(OrderSummary::getOrderId).toList());
+            for (OrderSummary row : rows) {
+                List<OrderItemResponse> lines = items.get(row.getOrderId());
+                if (lines == null) {
+                    lines = row.getLegacyItems() != null ? decodeLegacyItems(row.getLegacyItems()) : List.of();
+                }
+                row.setItems(lines);
+            }
+        }
+        
+        return OrderPage.builder()
+            .items(rows)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    /**
+     * Write every order of a user as NDJSON, one row at a time
+     * The read-only transaction lets Postgres use a server-side cursor
+     */
+    @Transactional(readOnly = true)
+    public long streamOrders(String userId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(
+            new BufferedOutputStream(out, STREAM_BUFFER_SIZE));
+        // One object per line, no separator between root values
+        generator.setRootValueSeparator(null);
+        
+        AtomicLong rows = new AtomicLong();
+        try {
+            orderQueryRepository.streamByUser(userId, streamFetchSize, summary -> {
+                try {
+                    generator.writeObject(summary);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        generator.flush();
+        log.info("Streamed {} orders for user: {}", rows.get(), userId);
+        return rows.get();
+    }
+    
+    /**
+     * Items of an order, read from order_items
+     */
+    public List<OrderItemResponse> getOrderItems(String orderId) {
+        List<OrderItemResponse> items = orderItemRepository.findByOrderId(orderId);
+        if (!items.isEmpty()) {
+            return items;
+        }
+        
+        // No rows: unknown order, or one stored before order_items existed
+        Order order = orderRepository.findByOrderId(orderId)
+            .orElseThrow(() -> new OrderNotFoundException(orderId));
+        return order.getItems() != null ? decodeLegacyItems(order.getItems()) : items;
+    }
+    
+    public ProductSalesSummary getProductSales(String productId) {
+        return orderItemRepository.summarizeProduct(productId);
+    }
+    
     /**
      * Publish order event to Kafka
      */
@@ -207,17 +340,24 @@ public class OrderService {
         return "ORD-" + UUID.randomUUID().toString();
     }
     
-    private String generatePaymentIdempotencyKey(String orderId) {
-        // Consistent idempotency key based on order ID
-        // Same order always generates same key
-        return "PAY-IDEMPOTENCY-" + orderId;
-    }
-    
-    private String serializeItems(List<CreateOrderRequest.OrderItem> items) {
+    /**
+     * Orders created before order_items existed only have the JSON column
+     */
+    private List<OrderItemResponse> decodeLegacyItems(String items) {
         try {
-            return objectMapper.writeValueAsString(items);
+            List<CreateOrderRequest.OrderItem> decoded = objectMapper.readValue(items,
+                new TypeReference<List<CreateOrderRequest.OrderItem>>() { });
+            return decoded.stream()
+                .map(item -> OrderItemResponse.builder()
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getPrice())
+                    .lineTotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .build())
+                .toList();
         } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize items", e);
+            throw new IllegalStateException("Failed to decode items", e);
         }
     }
     
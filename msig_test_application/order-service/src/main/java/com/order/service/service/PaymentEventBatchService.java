@@ -0,0 +1,184 @@
+package com.order.service.service;
+
+import com.order.service.event.OrderEvent;
+import com.order.service.event.PaymentEvent;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import com.order.service.projection.OrderStatusProjection;
+import com.order.service.repository.OrderBatchRepository;
+import com.order.service.repository.OrderRepository;
+import com.order.service.stats.RollingStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a poll of payment events as one batch
+ *
+ * Events are collapsed to the newest one per order, then each target status
+ * is applied with one JDBC batch of the same compare-and-set update used by
+ * OrderService.handlePaymentEvent. OrderEvents for the applied orders are
+ * sent as one producer batch before commit, so a failed publish rolls the
+ * updates back and the poll is redelivered. A PAYMENT_SUCCESS that matched
+ * no row because the order was already CANCELLED queues a cancellation, so
+ * payment-service flags the payment for refund.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentEventBatchService {
+    
+    private static final String UPDATE_SQL = """
+        UPDATE orders
+        SET status = ?,
+            last_payment_sequence = COALESCE(?, last_payment_sequence),
+            payment_id = COALESCE(payment_id, ?),
+            updated_at = ?,
+            version = version + 1
+        WHERE order_id = ?
+          AND status IN (%s)
+          AND (CAST(? AS BIGINT) IS NULL OR last_payment_sequence < ?)
+        """;
+    
+    private final OrderRepository orderRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderStatusProjection statusProjection;
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final RollingStats rollingStats;
+    
+    /**
+     * @return number of orders updated
+     */
+    @Transactional
+    public int apply(List<PaymentEvent> events) {
+        Map<String, PaymentEvent> latest = coalesce(events);
+        
+        Map<OrderStatus, List<Map.Entry<String, PaymentEvent>>> byTarget = new EnumMap<>(OrderStatus.class);
+        for (Map.Entry<String, PaymentEvent> entry : latest.entrySet()) {
+            OrderStatus next = OrderStatus.forPaymentEvent(entry.getValue().getEventType());
+            byTarget.computeIfAbsent(next, k -> new ArrayList<>()).add(entry);
+        }
+        
+        Map<String, OrderStatus> applied = new LinkedHashMap<>();
+        List<String> unappliedSuccess = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        byTarget.forEach((next, entries) -> {
+            int[][] counts = jdbcTemplate.batchUpdate(updateSql(next), entries, entries.size(),
+                (ps, entry) -> {
+                    PaymentEvent event = entry.getValue();
+                    ps.setString(1, next.name());
+                    ps.setObject(2, event.getSequence(), Types.BIGINT);
+                    ps.setString(3, event.getPaymentId());
+                    ps.setTimestamp(4, now);
+                    ps.setString(5, entry.getKey());
+                    ps.setObject(6, event.getSequence(), Types.BIGINT);
+                    ps.setObject(7, event.getSequence(), Types.BIGINT);
+                });
+            for (int i = 0; i < entries.size(); i++) {
+                if (counts[0][i] > 0) {
+                    applied.put(entries.get(i).getKey(), next);
+                } else if (next == OrderStatus.PAID) {
+                    unappliedSuccess.add(entries.get(i).getKey());
+                }
+            }
+        });
+        
+        if (!unappliedSuccess.isEmpty()) {
+            List<String> refunds = orderBatchRepository.enqueueCancellationsIfCancelled(unappliedSuccess, now);
+            if (!refunds.isEmpty()) {
+                log.error("Payments succeeded for cancelled orders {}, cancellations queued for refund", refunds);
+            }
+        }
+        
+        publish(applied);
+        log.info("Applied payment event batch: {} events, {} orders, {} updated", 
+            events.size(), latest.size(), applied.size());
+        return applied.size();
+    }
+    
+    /**
+     * Newest status-changing event per order: highest sequence, or last in offset order if unsequenced
+     */
+    private Map<String, PaymentEvent> coalesce(List<PaymentEvent> events) {
+        Map<String, PaymentEvent> latest = new LinkedHashMap<>();
+        for (PaymentEvent event : events) {
+            if ("PAYMENT_REFUND_REQUIRED".equals(event.getEventType())) {
+                log.error("Payment {} of order {} was captured after cancellation, refund required",
+                    event.getPaymentId(), event.getOrderId());
+            }
+            if (OrderStatus.forPaymentEvent(event.getEventType()) == null) {
+                continue;
+            }
+            String orderId = resolveOrderId(event);
+            if (orderId == null) {
+                log.warn("No order found for payment: {}", event.getPaymentId());
+                continue;
+            }
+            latest.merge(orderId, event, (current, candidate) ->
+                current.getSequence() != null && candidate.getSequence() != null
+                    && candidate.getSequence() < current.getSequence() ? current : candidate);
+        }
+        return latest;
+    }
+    
+    private void publish(Map<String, OrderStatus> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        
+        List<Order> orders = orderRepository.findByOrderIdIn(applied.keySet());
+        statusProjection.applyAfterCommit(orders);
+        
+        List<CompletableFuture<?>> sends = new ArrayList<>(applied.size());
+        for (Order order : orders) {
+            rollingStats.record(applied.get(order.getOrderId()).name(), order.getCurrency());
+            OrderEvent event = OrderEvent.builder()
+                .orderId(order.getOrderId())
+                .userId(order.getUserId())
+                .eventType(applied.get(order.getOrderId()) == OrderStatus.PAID 
+                    ? "ORDER_PAID" : "ORDER_PAYMENT_FAILED")
+                .totalAmount(order.getTotalAmount())
+                .currency(order.getCurrency())
+                .timestamp(System.currentTimeMillis())
+                .build();
+            sends.add(kafkaTemplate.send("order-events", order.getOrderId(), event));
+        }
+        
+        // One flush for the whole batch, then fail the transaction if any send failed
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+    }
+    
+    private String updateSql(OrderStatus next) {
+        String predecessors = OrderStatus.predecessorsOf(next).stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+        return UPDATE_SQL.formatted(predecessors);
+    }
+    
+    private String resolveOrderId(PaymentEvent event) {
+        if (event.getOrderId() != null) {
+            return event.getOrderId();
+        }
+        
+        // Events published before orderId was carried
+        return orderRepository.findByPaymentId(event.getPaymentId())
+            .map(Order::getOrderId)
+            .orElse(null);
+    }
+}
@@ -0,0 +1,212 @@
+package com.order.service.service;
+
+import com.order.service.client.PaymentServiceClient;
+import com.order.service.dto.BulkCreatePaymentRequest;
+import com.order.service.dto.BulkPaymentResult;
+import com.order.service.dto.CreatePaymentRequest;
+import com.order.service.dto.PaymentResponse;
+import com.order.service.exception.OrderNotFoundException;
+import com.order.service.model.Order;
+import com.order.service.model.PaymentInitiation;
+import com.order.service.repository.OrderRepository;
+import com.order.service.repository.PaymentInitiationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Drains the payment initiation outbox into payment-service
+ *
+ * Rows are claimed only up to the number of free workers, so at most
+ * concurrency Feign calls are in flight per instance and unclaimed rows
+ * stay available to other instances. Claimed rows whose worker dies are
+ * picked up again once their lease expires; the idempotency key makes the
+ * repeated createPayment call safe.
+ */
+@Component
+@Slf4j
+public class PaymentInitiationRelay {
+    
+    private final PaymentInitiationService initiationService;
+    private final OrderRepository orderRepository;
+    private final PaymentServiceClient paymentClient;
+    private final int batchSize;
+    private final Semaphore permits;
+    private final ExecutorService workers;
+    
+    private final Counter initiatedCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Timer callTimer;
+    private final Timer lagTimer;
+    
+    public PaymentInitiationRelay(
+            PaymentInitiationService initiationService,
+            PaymentInitiationRepository initiationRepository,
+            OrderRepository orderRepository,
+            PaymentServiceClient paymentClient,
+            MeterRegistry meterRegistry,
+            @Value("${order.payment-initiation.batch-size:50}") int batchSize,
+            @Value("${order.payment-initiation.concurrency:16}") int concurrency) {
+        this.initiationService = initiationService;
+        this.orderRepository = orderRepository;
+        this.paymentClient = paymentClient;
+        this.batchSize = batchSize;
+        this.permits = new Semaphore(concurrency);
+        this.workers = Executors.newFixedThreadPool(concurrency);
+        
+        this.initiatedCounter = meterRegistry.counter("order.payment.initiation", "result", "initiated");
+        this.retryCounter = meterRegistry.counter("order.payment.initiation", "result", "retry");
+        this.failedCounter = meterRegistry.counter("order.payment.initiation", "result", "failed");
+        this.callTimer = meterRegistry.timer("order.payment.initiation.call");
+        this.lagTimer = meterRegistry.timer("order.payment.initiation.lag");
+        Gauge.builder("order.payment.initiation.in_flight", permits,
+                p -> concurrency - p.availablePermits())
+            .register(meterRegistry);
+        Gauge.builder("order.payment.initiation.pending", initiationRepository,
+                PaymentInitiationRepository::countPending)
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.payment-initiation.poll-interval-ms:200}")
+    public void poll() {
+        int free = permits.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        
+        List<PaymentInitiation> claimed = initiationService.claim(Math.min(free, batchSize));
+        for (PaymentInitiation initiation : claimed) {
+            // Only this thread acquires, so the permits counted above are still free
+            permits.acquireUninterruptibly();
+            workers.execute(() -> {
+                try {
+                    initiate(initiation);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Initiate the payments of freshly created orders with one bulk call
+     *
+     * Runs on the caller's thread, outside the relay's permits. Orders whose
+     * row is held by a poll, or whose bulk call fails, stay in the outbox
+     * and are initiated by poll() like any other order.
+     *
+     * @return paymentId by orderId for the orders initiated here
+     */
+    public Map<String, String> initiateBatch(List<Order> orders) {
+        Map<String, Order> ordersById = new HashMap<>(orders.size() * 2);
+        for (Order order : orders) {
+            ordersById.put(order.getOrderId(), order);
+        }
+        
+        List<PaymentInitiation> claimed = initiationService.claimOrders(ordersById.keySet());
+        if (claimed.isEmpty()) {
+            return Map.of();
+        }
+        
+        List<CreatePaymentRequest> requests = new ArrayList<>(claimed.size());
+        for (PaymentInitiation initiation : claimed) {
+            requests.add(buildRequest(ordersById.get(initiation.getOrderId())));
+        }
+        
+        try {
+            List<BulkPaymentResult> results = callTimer.record(
+                () -> paymentClient.createPayments(new BulkCreatePaymentRequest(requests)));
+            
+            Map<String, String> paymentIds = new HashMap<>(results.size() * 2);
+            for (BulkPaymentResult result : results) {
+                paymentIds.put(result.getOrderId(), result.getPaymentId());
+            }
+            initiationService.markAllInitiated(paymentIds);
+            
+            initiatedCounter.increment(paymentIds.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (PaymentInitiation initiation : claimed) {
+                lagTimer.record(Duration.between(initiation.getCreatedAt(), now));
+            }
+            return paymentIds;
+            
+        } catch (Exception e) {
+            log.warn("Bulk payment initiation failed for {} orders: {}", claimed.size(), e.getMessage());
+            for (PaymentInitiation initiation : claimed) {
+                recordFailure(initiation, e);
+            }
+            return Map.of();
+        }
+    }
+    
+    private void initiate(PaymentInitiation initiation) {
+        String orderId = initiation.getOrderId();
+        try {
+            Order order = orderRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+            
+            CreatePaymentRequest paymentRequest = buildRequest(order);
+            PaymentResponse paymentResponse = callTimer.record(
+                () -> paymentClient.createPayment(paymentRequest, paymentRequest.getIdempotencyKey()));
+            
+            initiationService.markInitiated(initiation.getId(), paymentResponse.getPaymentId());
+            initiatedCounter.increment();
+            lagTimer.record(Duration.between(initiation.getCreatedAt(), LocalDateTime.now()));
+            
+        } catch (Exception e) {
+            log.warn("Payment initiation attempt {} failed for order: {}: {}",
+                initiation.getAttempts(), orderId, e.getMessage());
+            recordFailure(initiation, e);
+        }
+    }
+    
+    private CreatePaymentRequest buildRequest(Order order) {
+        CreatePaymentRequest paymentRequest = new CreatePaymentRequest();
+        paymentRequest.setOrderId(order.getOrderId());
+        paymentRequest.setAmount(order.getTotalAmount());
+        paymentRequest.setCurrency(order.getCurrency());
+        paymentRequest.setIdempotencyKey(generatePaymentIdempotencyKey(order.getOrderId()));
+        return paymentRequest;
+    }
+    
+    private void recordFailure(PaymentInitiation initiation, Exception e) {
+        try {
+            if (initiationService.markFailed(initiation.getId(), e.getMessage())) {
+                failedCounter.increment();
+            } else {
+                retryCounter.increment();
+            }
+        } catch (Exception markError) {
+            // Lease expiry will hand the row to the next poll
+            log.error("Failed to record initiation failure for order: {}", initiation.getOrderId(), markError);
+        }
+    }
+    
+    private String generatePaymentIdempotencyKey(String orderId) {
+        // Consistent idempotency key based on order ID
+        // Same order always generates same key
+        return "PAY-IDEMPOTENCY-" + orderId;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
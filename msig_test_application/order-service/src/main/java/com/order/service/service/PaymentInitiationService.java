@@ -0,0 +1,176 @@
+package com.order.service.service;
+
+import com.order.service.model.InitiationStatus;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import com.order.service.model.PaymentInitiation;
+import com.order.service.repository.OrderBatchRepository;
+import com.order.service.repository.OrderRepository;
+import com.order.service.repository.PaymentInitiationRepository;
+import com.order.service.stats.RollingStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Short transactions around the payment initiation outbox
+ *
+ * None of these methods call payment-service, so a connection is only held
+ * for the local reads and writes.
+ */
+@Service
+@Slf4j
+public class PaymentInitiationService {
+    
+    private final PaymentInitiationRepository initiationRepository;
+    private final OrderRepository orderRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final RollingStats rollingStats;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration lease;
+    
+    public PaymentInitiationService(
+            PaymentInitiationRepository initiationRepository,
+            OrderRepository orderRepository,
+            OrderBatchRepository orderBatchRepository,
+            RollingStats rollingStats,
+            @Value("${order.payment-initiation.max-attempts:5}") int maxAttempts,
+            @Value("${order.payment-initiation.initial-backoff-ms:2000}") long initialBackoffMs,
+            @Value("${order.payment-initiation.lease-ms:60000}") long leaseMs) {
+        this.initiationRepository = initiationRepository;
+        this.orderRepository = orderRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.rollingStats = rollingStats;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+    
+    /**
+     * Queue payment initiation for a new order, in the caller's transaction
+     */
+    @Transactional
+    public void enqueue(String orderId) {
+        initiationRepository.save(PaymentInitiation.builder()
+            .orderId(orderId)
+            .status(InitiationStatus.PENDING)
+            .build());
+    }
+    
+    /**
+     * enqueue for many orders as one batched insert, in the caller's transaction
+     */
+    @Transactional
+    public void enqueueAll(Collection<String> orderIds) {
+        orderBatchRepository.insertInitiations(orderIds, Timestamp.valueOf(LocalDateTime.now()));
+    }
+    
+    /**
+     * Claim up to limit due rows and lease them so no other relay picks them up
+     */
+    @Transactional
+    public List<PaymentInitiation> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentInitiation> due = initiationRepository.lockDue(now, limit);
+        
+        for (PaymentInitiation initiation : due) {
+            initiation.setAttempts(initiation.getAttempts() + 1);
+            initiation.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+    
+    /**
+     * Claim the due rows of specific orders, e.g. right after a bulk create
+     */
+    @Transactional
+    public List<PaymentInitiation> claimOrders(Collection<String> orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PaymentInitiation> due = initiationRepository.lockDueByOrderIds(now, orderIds);
+        
+        for (PaymentInitiation initiation : due) {
+            initiation.setAttempts(initiation.getAttempts() + 1);
+            initiation.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+    
+    /**
+     * If the order was cancelled while the payment was created, the new payment is queued for cancellation
+     */
+    @Transactional
+    public void markInitiated(Long initiationId, String paymentId) {
+        PaymentInitiation initiation = initiationRepository.findById(initiationId).orElseThrow();
+        initiation.setStatus(InitiationStatus.INITIATED);
+        initiation.setLastError(null);
+        
+        Order order = orderRepository.findByOrderIdWithLock(initiation.getOrderId()).orElseThrow();
+        order.setPaymentId(paymentId);
+        // A payment event may already have moved the order on
+        if (order.getStatus() == OrderStatus.PAYMENT_PENDING) {
+            order.setStatus(OrderStatus.PAYMENT_PROCESSING);
+        }
+        orderRepository.save(order);
+        
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            orderBatchRepository.enqueueCancellations(List.of(order.getOrderId()),
+                Timestamp.valueOf(LocalDateTime.now()));
+            log.warn("Order {} was cancelled while payment {} was created, cancellation queued",
+                order.getOrderId(), paymentId);
+            return;
+        }
+        log.info("Payment initiated for order: {}, paymentId: {}", order.getOrderId(), paymentId);
+    }
+    
+    /**
+     * markInitiated for many orders, as batched updates
+     */
+    @Transactional
+    public void markAllInitiated(Map<String, String> paymentIdByOrderId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        orderBatchRepository.markInitiated(paymentIdByOrderId, now);
+        List<String> cancelled = orderBatchRepository.enqueueCancellationsIfCancelled(
+            List.copyOf(paymentIdByOrderId.keySet()), now);
+        if (!cancelled.isEmpty()) {
+            log.warn("Orders {} were cancelled while their payments were created, cancellations queued", cancelled);
+        }
+        log.info("Payments initiated for {} orders", paymentIdByOrderId.size());
+    }
+    
+    /**
+     * Schedule a retry with exponential backoff, or give up after max attempts
+     * @return true if the initiation was given up and the order marked PAYMENT_FAILED
+     */
+    @Transactional
+    public boolean markFailed(Long initiationId, String error) {
+        PaymentInitiation initiation = initiationRepository.findById(initiationId).orElseThrow();
+        initiation.setLastError(error);
+        
+        if (initiation.getAttempts() < maxAttempts) {
+            Duration backoff = initialBackoff.multipliedBy(1L << Math.min(initiation.getAttempts() - 1, 16));
+            initiation.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+            return false;
+        }
+        
+        initiation.setStatus(InitiationStatus.FAILED);
+        Order order = orderRepository.findByOrderIdWithLock(initiation.getOrderId()).orElseThrow();
+        if (order.getStatus() == OrderStatus.PAYMENT_PENDING) {
+            order.setStatus(OrderStatus.PAYMENT_FAILED);
+            orderRepository.save(order);
+            rollingStats.record(OrderStatus.PAYMENT_FAILED.name(), order.getCurrency());
+        }
+        
+        log.error("Giving up payment initiation for order: {} after {} attempts",
+            initiation.getOrderId(), initiation.getAttempts());
+        return true;
+    }
+}
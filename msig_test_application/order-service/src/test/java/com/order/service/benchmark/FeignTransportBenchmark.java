@@ -0,0 +1,115 @@
+package com.order.service.benchmark;
+
+import com.order.service.config.HttpClientConfig;
+import com.order.service.http.HttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Headers;
+import feign.RequestLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Feign calls per second: HttpURLConnection against the pooled JDK HttpClient
+ *
+ * 16 threads POST a createPayment-sized body to an in-process HTTP/1.1
+ * server, so the difference is connection handling, not the peer. The
+ * number of connections the server saw is printed at the end of each trial.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.order.service.benchmark.FeignTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class FeignTransportBenchmark {
+    
+    private static final String REQUEST = """
+        {"orderId":"ORD-6f1c2b9e-4d3a-4b8e-9a21-0c7d5e3f8a14","amount":149.99,"currency":"USD",\
+        "idempotencyKey":"PAY-IDEMPOTENCY-ORD-6f1c2b9e-4d3a-4b8e-9a21-0c7d5e3f8a14"}""";
+    
+    private static final byte[] RESPONSE = """
+        {"paymentId":"PAY-0b6f4c52-3a8e-4d1b-9f27-6c1e5a7d8b90","status":"PENDING"}"""
+        .getBytes(StandardCharsets.UTF_8);
+    
+    interface PaymentApi {
+        @RequestLine("POST /api/payments")
+        @Headers("Content-Type: application/json")
+        String createPayment(String body);
+    }
+    
+    @Param({"default", "pooled"})
+    private String transport;
+    
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private PaymentApi api;
+    
+    // Client ports seen by the server, i.e. connections opened
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    
+    @Setup
+    public void setup() throws Exception {
+        // Without it Nagle and delayed ACKs add ~40 ms to every small response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/payments", exchange -> {
+            connections.add(exchange.getRemoteAddress().getPort());
+            requests.increment();
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, RESPONSE.length);
+            exchange.getResponseBody().write(RESPONSE);
+            exchange.close();
+        });
+        server.start();
+        
+        api = Feign.builder()
+            .client(client())
+            .target(PaymentApi.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+    
+    private Client client() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setTransport(HttpClientProperties.Transport.valueOf(transport.toUpperCase()));
+        return new HttpClientConfig().feignClient(properties, new SimpleMeterRegistry());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%s: %d connections for %d requests%n", transport, connections.size(), requests.sum());
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+    
+    @Benchmark
+    public String createPayment() {
+        return api.createPayment(REQUEST);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FeignTransportBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
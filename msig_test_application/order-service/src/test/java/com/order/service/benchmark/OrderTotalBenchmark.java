@@ -0,0 +1,69 @@
+package com.order.service.benchmark;
+
+import com.order.service.dto.CreateOrderRequest;
+import com.order.service.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order total: BigDecimal stream pipeline against Money minor units
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.order.service.benchmark.OrderTotalBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+    
+    @Param({"5", "50"})
+    private int lines;
+    
+    private List<CreateOrderRequest.OrderItem> items;
+    
+    @Setup
+    public void setup() {
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            CreateOrderRequest.OrderItem item = new CreateOrderRequest.OrderItem();
+            item.setProductId("SKU-" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1 + i % 7);
+            item.setPrice(new BigDecimal((i * 137 % 10000 + 99) + ".99"));
+            items.add(item);
+        }
+    }
+    
+    // What OrderService.createOrder did before Money
+    @Benchmark
+    public BigDecimal bigDecimalPipeline() {
+        return items.stream()
+            .map(item -> item.getPrice().multiply(
+                BigDecimal.valueOf(item.getQuantity())))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    @Benchmark
+    public long moneyTotal() {
+        return Money.total("USD", items,
+            CreateOrderRequest.OrderItem::getPrice, CreateOrderRequest.OrderItem::getQuantity)
+            .minorUnits();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(OrderTotalBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.order.service.consumer;
+
+import com.order.service.event.PaymentEvent;
+import com.order.service.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class KeyOrderedPaymentEventConsumerTest {
+
+    private static final String TOPIC = "payment-events";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer = mock(DeadLetterPublishingRecoverer.class);
+    private final Acknowledgment ack = mock(Acknowledgment.class);
+    private final Consumer<?, ?> consumer = mock(Consumer.class);
+    private final KeyOrderedPaymentEventConsumer listener = new KeyOrderedPaymentEventConsumer(
+        orderService, deadLetterRecoverer, new SimpleMeterRegistry(), 4);
+
+    @AfterEach
+    void shutdown() {
+        listener.shutdown();
+    }
+
+    @Test
+    void acknowledgesWhenEveryRecordCompleted() {
+        listener.consumePaymentEvents(List.of(
+            record(0, 10, "ORD-1"),
+            record(0, 11, "ORD-2"),
+            record(1, 20, "ORD-3")), ack, consumer);
+
+        verify(orderService, times(3)).handlePaymentEvent(any());
+        verify(ack).acknowledge();
+        verifyNoInteractions(consumer);
+    }
+
+    @Test
+    void deadLetteredFailureCountsAsCompleted() {
+        failProcessing("ORD-2");
+
+        listener.consumePaymentEvents(List.of(
+            record(0, 10, "ORD-1"),
+            record(0, 11, "ORD-2"),
+            record(0, 12, "ORD-2")), ack, consumer);
+
+        verify(deadLetterRecoverer).accept(argThat(r -> r.offset() == 11), any());
+        verify(orderService, times(2)).handlePaymentEvent(forOrder("ORD-2"));
+        verify(ack).acknowledge();
+        verifyNoInteractions(consumer);
+    }
+
+    @Test
+    void failedDeadLetterHoldsTheOrderBackAndRewindsToTheFirstIncompleteOffset() {
+        failProcessing("ORD-2");
+        failDeadLetter();
+
+        listener.consumePaymentEvents(List.of(
+            record(0, 10, "ORD-1"),
+            record(0, 11, "ORD-2"),
+            record(0, 12, "ORD-2"),
+            record(0, 13, "ORD-1")), ack, consumer);
+
+        // 12 is skipped behind its failed predecessor, 13 belongs to another order and runs
+        verify(orderService).handlePaymentEvent(forOrder("ORD-2"));
+        verify(orderService, times(2)).handlePaymentEvent(forOrder("ORD-1"));
+
+        verify(consumer).commitSync(Map.of(P0, new OffsetAndMetadata(11)));
+        verify(consumer).seek(P0, 11);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void mixedPartitionsCommitEachUpToItsOwnFirstIncompleteOffset() {
+        failProcessing("ORD-3");
+        failDeadLetter();
+
+        listener.consumePaymentEvents(List.of(
+            record(0, 10, "ORD-1"),
+            record(1, 20, "ORD-3"),
+            record(0, 11, "ORD-2"),
+            record(1, 21, "ORD-4"),
+            record(0, 12, "ORD-1")), ack, consumer);
+
+        // P1 has nothing completed before its failure, so only P0 is committed
+        verify(consumer).commitSync(Map.of(P0, new OffsetAndMetadata(13)));
+        verify(consumer).seek(P1, 20);
+        verify(consumer, never()).seek(P0, 10L);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void rewindsWithoutCommittingWhenEveryPartitionFailsFirst() {
+        failProcessing("ORD-1");
+        failDeadLetter();
+
+        listener.consumePaymentEvents(List.of(
+            record(0, 10, "ORD-1"),
+            record(0, 11, "ORD-2")), ack, consumer);
+
+        verify(consumer, never()).commitSync(anyMap());
+        verify(consumer).seek(P0, 10);
+        verify(ack, never()).acknowledge();
+    }
+
+    private void failProcessing(String orderId) {
+        doThrow(new IllegalStateException("boom")).when(orderService).handlePaymentEvent(forOrder(orderId));
+    }
+
+    private void failDeadLetter() {
+        doThrow(new IllegalStateException("DLT unavailable")).when(deadLetterRecoverer).accept(any(), any());
+    }
+
+    private static PaymentEvent forOrder(String orderId) {
+        return argThat(event -> event != null && orderId.equals(event.getOrderId()));
+    }
+
+    private static ConsumerRecord<String, PaymentEvent> record(int partition, long offset, String orderId) {
+        PaymentEvent event = new PaymentEvent();
+        event.setEventId("evt-" + partition + "-" + offset);
+        event.setPaymentId("PAY-" + orderId);
+        event.setOrderId(orderId);
+        event.setEventType("PAYMENT_SUCCESS");
+        return new ConsumerRecord<>(TOPIC, partition, offset, "PAY-" + orderId, event);
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.service.expiry;
+
+import com.order.service.client.PaymentServiceClient;
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import com.order.service.repository.OrderBatchRepository;
+import com.order.service.repository.OrderRepository;
+import com.order.service.stats.RollingStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderExpiryServiceTest {
+
+    private final OrderBatchRepository orderBatchRepository = mock(OrderBatchRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final PaymentServiceClient paymentClient = mock(PaymentServiceClient.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final RollingStats rollingStats = mock(RollingStats.class);
+    private final OrderExpiryService service = new OrderExpiryService(
+        orderBatchRepository, orderRepository, paymentClient, kafkaTemplate, rollingStats);
+
+    @Test
+    void expiresMatchedOrdersAndPublishesThem() {
+        when(orderBatchRepository.expireOrders(eq(List.of("ORD-1", "ORD-2")), any()))
+            .thenReturn(List.of("ORD-1"));
+        Order order = Order.builder()
+            .orderId("ORD-1")
+            .userId("user-1")
+            .totalAmount(new BigDecimal("10.00"))
+            .currency("USD")
+            .status(OrderStatus.CANCELLED)
+            .build();
+        when(orderRepository.findByOrderIdIn(List.of("ORD-1"))).thenReturn(List.of(order));
+
+        List<Order> expired = service.expire(List.of("ORD-1", "ORD-2"));
+
+        assertThat(expired).containsExactly(order);
+        verify(orderBatchRepository).failInitiations(eq(List.of("ORD-1")), eq(OrderExpiryService.REASON), any());
+        verify(orderBatchRepository).enqueueCancellations(eq(List.of("ORD-1")), any());
+        verify(rollingStats).record(OrderStatus.CANCELLED.name(), "USD");
+        verify(kafkaTemplate).send(eq("order-events"), eq("ORD-1"), any());
+    }
+
+    @Test
+    void doesNothingElseWhenNoOrderExpired() {
+        when(orderBatchRepository.expireOrders(anyList(), any())).thenReturn(List.of());
+
+        assertThat(service.expire(List.of("ORD-1"))).isEmpty();
+
+        verify(orderBatchRepository, never()).failInitiations(any(), any(), any());
+        verify(orderBatchRepository, never()).enqueueCancellations(any(), any());
+        verifyNoInteractions(orderRepository, kafkaTemplate, rollingStats);
+    }
+}
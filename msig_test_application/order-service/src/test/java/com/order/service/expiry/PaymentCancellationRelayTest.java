@@ -0,0 +1,88 @@
+package com.order.service.expiry;
+
+import com.order.service.model.CancellationStatus;
+import com.order.service.model.PaymentCancellation;
+import com.order.service.repository.PaymentCancellationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PaymentCancellationRelayTest {
+
+    private static final LocalDateTime LEASE = LocalDateTime.of(2026, 1, 1, 12, 1);
+
+    private final PaymentCancellationService cancellationService = mock(PaymentCancellationService.class);
+    private final OrderExpiryService expiryService = mock(OrderExpiryService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentCancellationRelay relay = new PaymentCancellationRelay(
+        cancellationService, mock(PaymentCancellationRepository.class), expiryService, meterRegistry, 2);
+
+    @Test
+    void cancelsClaimedOrdersAndDrainsFullBatches() {
+        PaymentCancellationService.Claim full = claim("ORD-1", "ORD-2");
+        PaymentCancellationService.Claim rest = claim("ORD-3");
+        when(cancellationService.claim(2)).thenReturn(full, rest);
+
+        relay.poll();
+
+        verify(expiryService).cancelPayments(List.of("ORD-1", "ORD-2"));
+        verify(expiryService).cancelPayments(List.of("ORD-3"));
+        verify(cancellationService).markCancelled(full);
+        verify(cancellationService).markCancelled(rest);
+        verify(cancellationService, never()).markFailed(any(), any());
+        assertThat(meterRegistry.counter("order.expiry.cancelled").count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedCallSchedulesRetryAndStopsThePoll() {
+        PaymentCancellationService.Claim full = claim("ORD-1", "ORD-2");
+        when(cancellationService.claim(2)).thenReturn(full);
+        doThrow(new RuntimeException("payment-service unavailable"))
+            .when(expiryService).cancelPayments(any());
+
+        relay.poll();
+
+        verify(cancellationService, times(1)).claim(anyInt());
+        verify(cancellationService).markFailed(eq(full), eq("payment-service unavailable"));
+        verify(cancellationService, never()).markCancelled(any());
+        assertThat(meterRegistry.counter("order.expiry.cancel.failed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyClaimCallsNothing() {
+        when(cancellationService.claim(2)).thenReturn(claim());
+
+        relay.poll();
+
+        verifyNoInteractions(expiryService);
+        verify(cancellationService, never()).markCancelled(any());
+    }
+
+    private static PaymentCancellationService.Claim claim(String... orderIds) {
+        List<PaymentCancellation> rows = IntStream.range(0, orderIds.length)
+            .mapToObj(i -> PaymentCancellation.builder()
+                .id((long) i)
+                .orderId(orderIds[i])
+                .status(CancellationStatus.PENDING)
+                .attempts(1)
+                .nextAttemptAt(LEASE)
+                .build())
+            .toList();
+        return new PaymentCancellationService.Claim(rows, LEASE);
+    }
+}
@@ -0,0 +1,68 @@
+package com.order.service.expiry;
+
+import com.order.service.model.CancellationStatus;
+import com.order.service.model.PaymentCancellation;
+import com.order.service.repository.PaymentCancellationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentCancellationServiceTest {
+
+    private final PaymentCancellationRepository repository = mock(PaymentCancellationRepository.class);
+    private final PaymentCancellationService service = new PaymentCancellationService(repository, 1000, 8000, 60000);
+
+    @Test
+    void claimLeasesEveryRowToTheSameMillisecond() {
+        PaymentCancellation row = pending(1L, 0, LocalDateTime.now());
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(row));
+
+        PaymentCancellationService.Claim claim = service.claim(10);
+
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getNextAttemptAt()).isEqualTo(claim.leaseUntil());
+        assertThat(claim.leaseUntil().getNano() % 1_000_000).isZero();
+    }
+
+    @Test
+    void markFailedBacksOffOnlyRowsStillHoldingTheLease() {
+        LocalDateTime lease = LocalDateTime.of(2026, 1, 1, 12, 1);
+        PaymentCancellation claimed = pending(1L, 3, lease);
+        LocalDateTime reEnqueuedAt = LocalDateTime.of(2026, 1, 1, 12, 0, 30);
+        PaymentCancellation reEnqueued = pending(2L, 0, reEnqueuedAt);
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(claimed, reEnqueued));
+
+        service.markFailed(new PaymentCancellationService.Claim(List.of(claimed, reEnqueued), lease), "timeout");
+
+        assertThat(claimed.getLastError()).isEqualTo("timeout");
+        assertThat(claimed.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(3));
+        assertThat(reEnqueued.getLastError()).isNull();
+        assertThat(reEnqueued.getNextAttemptAt()).isEqualTo(reEnqueuedAt);
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(service.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(service.backoff(40)).isEqualTo(Duration.ofSeconds(8));
+    }
+
+    private static PaymentCancellation pending(Long id, int attempts, LocalDateTime nextAttemptAt) {
+        return PaymentCancellation.builder()
+            .id(id)
+            .orderId("ORD-" + id)
+            .status(CancellationStatus.PENDING)
+            .attempts(attempts)
+            .nextAttemptAt(nextAttemptAt)
+            .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.order.service.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long ORIGIN_MS = 1_000_000L;
+    private static final long TICK_MS = 10;
+
+    @Test
+    void firesAtFirstTickAtOrAfterDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, ORIGIN_MS);
+        wheel.schedule("a", ORIGIN_MS + 25);
+
+        assertThat(wheel.advance(ORIGIN_MS + 29)).isEmpty();
+        assertThat(wheel.advance(ORIGIN_MS + 30)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void passedDeadlineFiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, ORIGIN_MS);
+        wheel.advance(ORIGIN_MS + 100);
+        wheel.schedule("late", ORIGIN_MS - 500);
+
+        assertThat(wheel.advance(ORIGIN_MS + 110)).containsExactly("late");
+    }
+
+    @Test
+    void cascadesEveryDeltaDownToItsTick() {
+        // 3 levels of 4 buckets: deltas 1..63 cover every level
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 0, 2, 3);
+        for (int delta = 63; delta >= 1; delta--) {
+            wheel.schedule(delta, delta);
+        }
+
+        for (int tick = 1; tick <= 63; tick++) {
+            assertThat(wheel.advance(tick)).as("tick %d", tick).containsExactly(tick);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFromUpperLevelsWithDefaultGeometry() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, ORIGIN_MS);
+        wheel.schedule("level1", ORIGIN_MS + 300 * TICK_MS);
+        wheel.schedule("level2", ORIGIN_MS + 70_000 * TICK_MS);
+
+        assertThat(wheel.advance(ORIGIN_MS + 299 * TICK_MS)).isEmpty();
+        assertThat(wheel.advance(ORIGIN_MS + 300 * TICK_MS)).containsExactly("level1");
+        assertThat(wheel.advance(ORIGIN_MS + 69_999 * TICK_MS)).isEmpty();
+        assertThat(wheel.advance(ORIGIN_MS + 70_000 * TICK_MS)).containsExactly("level2");
+    }
+
+    @Test
+    void wrapsAroundLevelBoundaries() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 0, 2, 3);
+        List<Integer> fired = new ArrayList<>();
+
+        // Schedule from every offset so deadlines straddle each wrap of levels 0 and 1
+        for (int now = 0; now <= 220; now++) {
+            for (int value : wheel.advance(now)) {
+                assertThat(value).as("tick %d", now).isEqualTo(now);
+                fired.add(value);
+            }
+            if (now < 200) {
+                wheel.schedule(now + 5, now + 5);
+                wheel.schedule(now + 17, now + 17);
+            }
+        }
+
+        assertThat(wheel.size()).isZero();
+        assertThat(fired).hasSize(400);
+    }
+
+    @Test
+    void parksDeadlinesBeyondTheTopLevel() {
+        // 2 levels of 4 buckets reach 15 ticks ahead
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0, 2, 2);
+        wheel.schedule("far", 40);
+        wheel.schedule("near", 3);
+
+        List<String> fired = new ArrayList<>();
+        for (int tick = 1; tick < 40; tick++) {
+            fired.addAll(wheel.advance(tick));
+        }
+        assertThat(fired).containsExactly("near");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advance(40)).containsExactly("far");
+        assertThat(wheel.size()).isZero();
+    }
+}
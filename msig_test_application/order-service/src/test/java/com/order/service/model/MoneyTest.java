@@ -0,0 +1,84 @@
+package com.order.service.model;
+
+import com.order.service.exception.InvalidAmountException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private record Line(BigDecimal price, int quantity) {
+    }
+
+    @Test
+    void totalsLinesInMinorUnits() {
+        Money total = total("USD", new Line(new BigDecimal("19.99"), 3), new Line(new BigDecimal("5"), 2));
+
+        assertThat(total.minorUnits()).isEqualTo(6997);
+        assertThat(total.toBigDecimal()).isEqualByComparingTo("69.97");
+        assertThat(total.toBigDecimal().scale()).isEqualTo(2);
+    }
+
+    @Test
+    void usesTheCurrencyScale() {
+        assertThat(Money.of(new BigDecimal("1500"), "JPY").minorUnits()).isEqualTo(1500);
+        assertThat(Money.of(new BigDecimal("1.234"), "BHD").minorUnits()).isEqualTo(1234);
+    }
+
+    @Test
+    void rejectsMoreDecimalsThanTheCurrencyAllows() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.001"), "USD"))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1.5"), "JPY"))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> total("USD", new Line(new BigDecimal("0.005"), 1)))
+            .isInstanceOf(InvalidAmountException.class);
+    }
+
+    @Test
+    void acceptsTrailingZerosBeyondTheCurrencyScale() {
+        assertThat(Money.of(new BigDecimal("10.500"), "USD").minorUnits()).isEqualTo(1050);
+    }
+
+    @Test
+    void overflowIsAnInvalidAmount() {
+        BigDecimal huge = BigDecimal.valueOf(Long.MAX_VALUE / 2 + 1, 2);
+
+        assertThatThrownBy(() -> total("USD", new Line(huge, 2)))
+            .isInstanceOf(InvalidAmountException.class)
+            .hasCauseInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> total("USD", new Line(huge, 1), new Line(huge, 1)))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE, "USD").plus(Money.ofMinor(1, "USD")))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE / 2 + 1, "USD").times(2))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e30"), "USD"))
+            .isInstanceOf(InvalidAmountException.class);
+    }
+
+    @Test
+    void rejectsUnknownOrMissingCurrency() {
+        assertThatThrownBy(() -> Money.of(BigDecimal.ONE, "XYZ"))
+            .isInstanceOf(InvalidAmountException.class)
+            .hasMessageContaining("XYZ");
+        assertThatThrownBy(() -> Money.of(BigDecimal.ONE, "XAU"))
+            .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.zero(null))
+            .isInstanceOf(InvalidAmountException.class);
+    }
+
+    @Test
+    void rejectsMixedCurrencies() {
+        assertThatThrownBy(() -> Money.ofMinor(100, "USD").plus(Money.ofMinor(100, "EUR")))
+            .isInstanceOf(InvalidAmountException.class);
+    }
+
+    private static Money total(String currency, Line... lines) {
+        return Money.total(currency, List.of(lines), Line::price, Line::quantity);
+    }
+}
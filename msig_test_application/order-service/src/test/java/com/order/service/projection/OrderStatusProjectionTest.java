@@ -0,0 +1,76 @@
+package com.order.service.projection;
+
+import com.order.service.model.Order;
+import com.order.service.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class OrderStatusProjectionTest {
+
+    private final OrderStatusProjection projection = new OrderStatusProjection(
+        mock(JdbcTemplate.class), new SimpleMeterRegistry(), 16, 60_000, 5_000, 100);
+    private final String orderId = "ORD-" + UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // Empty snapshot, the projection is ready and fresh
+        projection.loadSnapshot();
+        projection.applyRow(orderId, OrderStatus.PAYMENT_PROCESSING, 3, 1);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void committedTransitionIsAppliedOnlyAfterCommit() {
+        projection.applyAfterCommit(List.of(order(OrderStatus.PAID, 4, 2)));
+        assertThat(projection.find(orderId)).contains(OrderStatus.PAYMENT_PROCESSING);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(projection.find(orderId)).contains(OrderStatus.PAID);
+    }
+
+    @Test
+    void rolledBackTransitionNeverReachesTheProjection() {
+        projection.applyAfterCommit(List.of(order(OrderStatus.PAID, 4, 2)));
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(projection.find(orderId)).contains(OrderStatus.PAYMENT_PROCESSING);
+    }
+
+    @Test
+    void olderRowDoesNotReplaceANewerOne() {
+        projection.applyRow(orderId, OrderStatus.CANCELLED, 5, 1);
+
+        projection.applyAfterCommit(List.of(order(OrderStatus.PAID, 4, 2)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(projection.find(orderId)).contains(OrderStatus.CANCELLED);
+    }
+
+    private Order order(OrderStatus status, int version, long sequence) {
+        return Order.builder()
+            .orderId(orderId)
+            .status(status)
+            .version(version)
+            .lastPaymentSequence(sequence)
+            .build();
+    }
+}
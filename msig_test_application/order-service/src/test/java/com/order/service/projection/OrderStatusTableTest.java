@@ -0,0 +1,117 @@
+package com.order.service.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusTableTest {
+
+    private static final OrderStatusTable.UpdatePolicy ALWAYS = (current, candidate) -> true;
+
+    /**
+     * msb ^ rotateLeft(lsb, 32) is the same for every i, so all keys hash to one slot
+     */
+    private static UUID colliding(long i) {
+        return new UUID(i, Long.rotateRight(i ^ 0x5DEECE66DL, 32));
+    }
+
+    @Test
+    void packRoundTripsEveryField() {
+        long packed = OrderStatusTable.pack(5, 1234, 77);
+
+        assertThat(OrderStatusTable.statusOf(packed)).isEqualTo(5);
+        assertThat(OrderStatusTable.versionOf(packed)).isEqualTo(1234);
+        assertThat(OrderStatusTable.sequenceOf(packed)).isEqualTo(77);
+    }
+
+    @Test
+    void packSaturatesInsteadOfWrapping() {
+        long packed = OrderStatusTable.pack(3, Long.MAX_VALUE, Long.MAX_VALUE);
+
+        assertThat(packed).isNotNegative();
+        assertThat(OrderStatusTable.statusOf(packed)).isEqualTo(3);
+        assertThat(OrderStatusTable.versionOf(packed)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(OrderStatusTable.sequenceOf(packed)).isEqualTo((1L << 24) - 1);
+        assertThat(OrderStatusTable.versionOf(packed))
+            .isGreaterThan(OrderStatusTable.versionOf(OrderStatusTable.pack(3, 1L << 30, 0)));
+    }
+
+    @Test
+    void probesPastCollidingKeys() {
+        OrderStatusTable table = new OrderStatusTable(16);
+        for (long i = 0; i < 40; i++) {
+            assertThat(table.put(colliding(i), OrderStatusTable.pack(1, i, i), ALWAYS)).isTrue();
+        }
+        table.put(colliding(7), OrderStatusTable.pack(2, 100, 7), ALWAYS);
+
+        assertThat(table.size()).isEqualTo(40);
+        for (long i = 0; i < 40; i++) {
+            long expected = i == 7 ? OrderStatusTable.pack(2, 100, 7) : OrderStatusTable.pack(1, i, i);
+            assertThat(table.get(colliding(i))).as("key %d", i).isEqualTo(expected);
+        }
+        assertThat(table.get(colliding(40))).isEqualTo(OrderStatusTable.ABSENT);
+    }
+
+    @Test
+    void putKeepsCurrentValueWhenPolicyRejects() {
+        OrderStatusTable table = new OrderStatusTable(16);
+        UUID key = UUID.randomUUID();
+        table.put(key, OrderStatusTable.pack(1, 5, 0), ALWAYS);
+
+        boolean stored = table.put(key, OrderStatusTable.pack(2, 4, 0),
+            (current, candidate) -> OrderStatusTable.versionOf(candidate) >= OrderStatusTable.versionOf(current));
+
+        assertThat(stored).isFalse();
+        assertThat(table.get(key)).isEqualTo(OrderStatusTable.pack(1, 5, 0));
+    }
+
+    @Test
+    void readersSeeStableEntriesWhileTheTableResizes() throws InterruptedException {
+        OrderStatusTable table = new OrderStatusTable(16);
+        List<UUID> stable = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            UUID key = UUID.randomUUID();
+            stable.add(key);
+            table.put(key, OrderStatusTable.pack(i, i, i), ALWAYS);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    for (int i = 0; i < stable.size(); i++) {
+                        long value = table.get(stable.get(i));
+                        if (value != OrderStatusTable.pack(i, i, i)) {
+                            failure.compareAndSet(null, "key " + i + " read " + value);
+                        }
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // Grows from 16 slots through many resizes
+        for (int i = 0; i < 200_000; i++) {
+            table.put(UUID.randomUUID(), OrderStatusTable.pack(1, 0, 0), ALWAYS);
+            if (i % 1000 == 0) {
+                Thread.yield();
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(failure.get()).isNull();
+        assertThat(table.size()).isEqualTo(200_008);
+    }
+}
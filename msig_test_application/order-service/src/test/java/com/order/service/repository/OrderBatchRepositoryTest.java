@@ -0,0 +1,76 @@
+package com.order.service.repository;
+
+import com.order.service.model.CancellationStatus;
+import com.order.service.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchRepositoryTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderBatchRepository repository = new OrderBatchRepository(jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expireOrdersOnlyMatchesUnpaidOrdersPastTheirDeadline() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 12, 0));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {1, 0, 1});
+
+        List<String> expired = repository.expireOrders(List.of("ORD-1", "ORD-2", "ORD-3"), now);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), rows.capture());
+
+        assertThat(sql.getValue())
+            .contains("status IN (?, ?)")
+            .contains("payment_deadline <= ?");
+        assertThat(rows.getValue()).hasSize(3);
+        assertThat(rows.getValue().get(1)).containsExactly(
+            OrderStatus.CANCELLED.name(), now, "ORD-2",
+            OrderStatus.PAYMENT_PENDING.name(), OrderStatus.PAYMENT_PROCESSING.name(), now);
+        assertThat(expired).containsExactly("ORD-1", "ORD-3");
+    }
+
+    @Test
+    void expireOrdersReturnsNothingWhenEveryOrderMovedOn() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {0, 0});
+
+        List<String> expired = repository.expireOrders(List.of("ORD-1", "ORD-2"),
+            Timestamp.valueOf(LocalDateTime.now()));
+
+        assertThat(expired).isEmpty();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueCancellationsIfCancelledOnlyQueuesCancelledOrders() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 12, 0));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] {0, 1});
+
+        List<String> queued = repository.enqueueCancellationsIfCancelled(List.of("ORD-1", "ORD-2"), now);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), rows.capture());
+
+        assertThat(sql.getValue())
+            .contains("WHERE order_id = ? AND status = ?")
+            .contains("ON CONFLICT (order_id) DO UPDATE");
+        assertThat(rows.getValue().get(1)).containsExactly(
+            CancellationStatus.PENDING.name(), now, now, now, "ORD-2", OrderStatus.CANCELLED.name());
+        assertThat(queued).containsExactly("ORD-2");
+    }
+}
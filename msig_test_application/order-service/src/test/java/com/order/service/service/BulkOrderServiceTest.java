@@ -0,0 +1,103 @@
+package com.order.service.service;
+
+import com.order.service.dto.BulkOrderResponse;
+import com.order.service.dto.BulkOrderResult;
+import com.order.service.dto.CreateOrderRequest;
+import com.order.service.expiry.OrderExpiryScheduler;
+import com.order.service.model.Order;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkOrderServiceTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final PaymentInitiationRelay initiationRelay = mock(PaymentInitiationRelay.class);
+    private final OrderExpiryScheduler expiryScheduler = mock(OrderExpiryScheduler.class);
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsInvalidItemsWithoutFailingTheValidOrders() {
+        when(expiryScheduler.deadlineFor(any())).thenReturn(LocalDateTime.now().plusMinutes(30));
+        when(initiationRelay.initiateBatch(anyList())).thenReturn(Map.of());
+        BulkOrderService service = new BulkOrderService(orderService, initiationRelay, expiryScheduler, validator);
+
+        List<CreateOrderRequest> requests = List.of(
+            order(item(2, "9.99")),
+            order(item(1, null)),
+            order(item(0, "5.00")),
+            order(item(1, "-5.00")),
+            order(item(1, "0.00")),
+            order(item(1, "12.50"), null),
+            order(item(3, "1.00")));
+
+        BulkOrderResponse response = service.createOrders(requests);
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(5);
+        List<BulkOrderResult> results = response.getResults();
+        assertThat(results.get(0).getOrderId()).isNotNull();
+        assertThat(results.get(0).getTotalAmount()).isEqualByComparingTo("19.98");
+        assertThat(results.get(1).getErrors()).singleElement().asString().startsWith("items[0].price");
+        assertThat(results.get(2).getErrors()).singleElement().asString().startsWith("items[0].quantity");
+        assertThat(results.get(3).getErrors()).singleElement().asString().startsWith("items[0].price");
+        assertThat(results.get(4).getErrors()).singleElement().asString().startsWith("items[0].price");
+        assertThat(results.get(5).getErrors()).singleElement().asString().startsWith("items[1]");
+        assertThat(results.get(6).getTotalAmount()).isEqualByComparingTo("3.00");
+
+        ArgumentCaptor<List<Order>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(orderService).insertOrders(inserted.capture(), anyMap());
+        assertThat(inserted.getValue()).extracting(Order::getOrderId)
+            .containsExactly(results.get(0).getOrderId(), results.get(6).getOrderId());
+    }
+
+    private static CreateOrderRequest order(CreateOrderRequest.OrderItem... items) {
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setUserId("user-1");
+        request.setCurrency("USD");
+        request.setItems(new ArrayList<>(Arrays.asList(items)));
+        return request;
+    }
+
+    private static CreateOrderRequest.OrderItem item(int quantity, String price) {
+        CreateOrderRequest.OrderItem item = new CreateOrderRequest.OrderItem();
+        item.setProductId("P-1");
+        item.setProductName("Product");
+        item.setQuantity(quantity);
+        item.setPrice(price != null ? new BigDecimal(price) : null);
+        return item;
+    }
+}
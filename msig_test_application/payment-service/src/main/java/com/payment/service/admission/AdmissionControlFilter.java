@@ -0,0 +1,148 @@
+package com.payment.service.admission;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gates /api/payments requests through the AdmissionController
+ * Shed requests get 429 with Retry-After instead of queueing indefinitely.
+ * A request that goes async keeps its slot until the async response
+ * completes. Exports stream for minutes, so they take a slot of their own
+ * limit instead of one of the controller's and never hold up callbacks.
+ */
+@Component
+@Slf4j
+@Order(1)
+@ConditionalOnProperty(name = "payment.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String EXPORT_PATH = "/api/payments/export";
+
+    private final AdmissionController admissionController;
+    private final Semaphore exportSlots;
+    private final int retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            AdmissionController admissionController,
+            @Value("${payment.admission.max-concurrent-exports:2}") int maxConcurrentExports,
+            @Value("${payment.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.admissionController = admissionController;
+        this.exportSlots = new Semaphore(maxConcurrentExports);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/payments");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (request.getRequestURI().startsWith(EXPORT_PATH)) {
+            if (!exportSlots.tryAcquire()) {
+                log.warn("Rejecting export {}: all export slots busy", request.getRequestURI());
+                reject(response, "Too many exports running, retry later");
+                return;
+            }
+            runHoldingSlot(request, response, filterChain, exportSlots::release);
+            return;
+        }
+
+        RequestPriority priority = RequestPriority.classify(request);
+
+        AdmissionDecision decision;
+        try {
+            decision = admissionController.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, "Request interrupted while waiting for admission");
+            return;
+        }
+
+        if (decision != AdmissionDecision.ADMITTED) {
+            log.warn("Shedding {} request {} {}: {}", priority,
+                request.getMethod(), request.getRequestURI(), decision);
+            reject(response, "Service is overloaded, retry later");
+            return;
+        }
+
+        runHoldingSlot(request, response, filterChain, admissionController::release);
+    }
+
+    private void runHoldingSlot(HttpServletRequest request, HttpServletResponse response,
+                                FilterChain filterChain, Runnable releaseSlot) throws ServletException, IOException {
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                releaseSlot.run();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * Completion is signalled after the original dispatch returns, so this is
+     * registered in time. Timeout and error are followed by complete; the
+     * guard releases once.
+     */
+    private record ReleaseOnCompletion(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops registered listeners, stay on it
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(String.format(
+            "{\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+            message));
+    }
+}
@@ -0,0 +1,234 @@
+package com.payment.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Priority admission control with CoDel-style overload detection
+ *
+ * At most maxConcurrent requests run at once. Waiting requests are granted
+ * in priority order (CALLBACK, CREATE, READ). Queueing delay is tracked as
+ * in CoDel: once every admitted request has waited longer than the target
+ * for a whole interval, the controller enters the dropping state and sheds
+ * READ requests immediately, and CREATE requests too if the standing delay
+ * exceeds the interval. Callbacks are only rejected when their own max wait
+ * runs out.
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    private final int maxConcurrent;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final Map<RequestPriority, Long> maxWaitNanos = new EnumMap<>(RequestPriority.class);
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(RequestPriority.class);
+    // Written under lock, volatile so the gauges can read them without it
+    private volatile int inFlight;
+    private volatile int queued;
+
+    // CoDel state, guarded by lock
+    private long firstAboveTime;
+    private volatile boolean dropping;
+    private long lastQueueDelay;
+
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shedOverload = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> shedTimeout = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> queueDelay = new EnumMap<>(RequestPriority.class);
+
+    @Autowired
+    public AdmissionController(
+            @Value("${payment.admission.max-concurrent:16}") int maxConcurrent,
+            @Value("${payment.admission.codel-target-ms:5}") long targetMs,
+            @Value("${payment.admission.codel-interval-ms:100}") long intervalMs,
+            @Value("${payment.admission.max-wait-ms.callback:2000}") long callbackMaxWaitMs,
+            @Value("${payment.admission.max-wait-ms.create:500}") long createMaxWaitMs,
+            @Value("${payment.admission.max-wait-ms.read:100}") long readMaxWaitMs,
+            MeterRegistry meterRegistry) {
+        this(maxConcurrent, targetMs, intervalMs, callbackMaxWaitMs, createMaxWaitMs, readMaxWaitMs,
+            meterRegistry, System::nanoTime);
+    }
+
+    AdmissionController(int maxConcurrent, long targetMs, long intervalMs, long callbackMaxWaitMs,
+                        long createMaxWaitMs, long readMaxWaitMs, MeterRegistry meterRegistry,
+                        LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.maxConcurrent = maxConcurrent;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        maxWaitNanos.put(RequestPriority.CALLBACK, TimeUnit.MILLISECONDS.toNanos(callbackMaxWaitMs));
+        maxWaitNanos.put(RequestPriority.CREATE, TimeUnit.MILLISECONDS.toNanos(createMaxWaitMs));
+        maxWaitNanos.put(RequestPriority.READ, TimeUnit.MILLISECONDS.toNanos(readMaxWaitMs));
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            String tag = priority.name().toLowerCase();
+            queues.put(priority, new ArrayDeque<>());
+            admitted.put(priority, Counter.builder("payment.admission.admitted")
+                .tag("priority", tag).register(meterRegistry));
+            shedOverload.put(priority, Counter.builder("payment.admission.shed")
+                .tag("priority", tag).tag("reason", "overload").register(meterRegistry));
+            shedTimeout.put(priority, Counter.builder("payment.admission.shed")
+                .tag("priority", tag).tag("reason", "timeout").register(meterRegistry));
+            queueDelay.put(priority, Timer.builder("payment.admission.queue.delay")
+                .tag("priority", tag).register(meterRegistry));
+        }
+
+        Gauge.builder("payment.admission.in.flight", this, c -> c.inFlight)
+            .register(meterRegistry);
+        Gauge.builder("payment.admission.queued", this, c -> c.queued)
+            .register(meterRegistry);
+        Gauge.builder("payment.admission.dropping", this, c -> c.dropping ? 1 : 0)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Wait for a slot. Every ADMITTED result must be paired with release()
+     */
+    public AdmissionDecision acquire(RequestPriority priority) throws InterruptedException {
+        long enqueuedAt = nanoClock.getAsLong();
+
+        lock.lock();
+        try {
+            if (inFlight < maxConcurrent && !hasWaitersAtOrAbove(priority)) {
+                inFlight++;
+                onDequeue(priority, 0, enqueuedAt);
+                return AdmissionDecision.ADMITTED;
+            }
+
+            if (shouldShed(priority)) {
+                shedOverload.get(priority).increment();
+                return AdmissionDecision.SHED_OVERLOAD;
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queues.get(priority).addLast(waiter);
+            queued++;
+
+            long remaining = maxWaitNanos.get(priority);
+            try {
+                while (!waiter.granted) {
+                    if (remaining <= 0) {
+                        queues.get(priority).remove(waiter);
+                        queued--;
+                        shedTimeout.get(priority).increment();
+                        return AdmissionDecision.SHED_TIMEOUT;
+                    }
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    releaseLocked();
+                } else {
+                    queues.get(priority).remove(waiter);
+                    queued--;
+                }
+                throw e;
+            }
+
+            long now = nanoClock.getAsLong();
+            onDequeue(priority, now - enqueuedAt, now);
+            return AdmissionDecision.ADMITTED;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            releaseLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked() {
+        inFlight--;
+
+        // Hand the slot straight to the highest priority waiter
+        for (RequestPriority priority : RequestPriority.values()) {
+            Waiter next = queues.get(priority).pollFirst();
+            if (next != null) {
+                queued--;
+                inFlight++;
+                next.granted = true;
+                next.condition.signal();
+                return;
+            }
+        }
+    }
+
+    private boolean hasWaitersAtOrAbove(RequestPriority priority) {
+        for (RequestPriority p : RequestPriority.values()) {
+            if (!queues.get(p).isEmpty()) {
+                return true;
+            }
+            if (p == priority) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean shouldShed(RequestPriority priority) {
+        if (!dropping || priority == RequestPriority.CALLBACK) {
+            return false;
+        }
+        if (priority == RequestPriority.READ) {
+            return true;
+        }
+        return lastQueueDelay > intervalNanos;
+    }
+
+    /**
+     * CoDel: enter dropping once the queue delay stayed above target
+     * for a full interval, leave it as soon as one request is under target
+     */
+    private void onDequeue(RequestPriority priority, long delayNanos, long now) {
+        admitted.get(priority).increment();
+        queueDelay.get(priority).record(delayNanos, TimeUnit.NANOSECONDS);
+        lastQueueDelay = delayNanos;
+
+        if (delayNanos < targetNanos) {
+            firstAboveTime = 0;
+            if (dropping) {
+                log.info("Admission control leaving overload state");
+            }
+            dropping = false;
+        } else if (firstAboveTime == 0) {
+            firstAboveTime = now + intervalNanos;
+        } else if (!dropping && now >= firstAboveTime) {
+            log.warn("Admission control entering overload state, queue delay: {} ms",
+                TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            dropping = true;
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.payment.service.admission;
+
+public enum AdmissionDecision {
+    ADMITTED,
+    SHED_OVERLOAD,   // CoDel detected a standing queue
+    SHED_TIMEOUT     // Waited longer than the priority's max wait
+}
@@ -0,0 +1,16 @@
+package com.payment.service.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public enum RequestPriority {
+    CALLBACK,  // Gateway callbacks - finish money movement, never shed early
+    CREATE,    // New charges
+    READ;      // Status reads - first to be shed
+    
+    public static RequestPriority classify(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return READ;
+        }
+        return request.getRequestURI().endsWith("/callback") ? CALLBACK : CREATE;
+    }
+}
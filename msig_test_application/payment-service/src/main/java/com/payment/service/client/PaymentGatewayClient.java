@@ -3,6 +3,7 @@ package com.payment.service.client;
 import com.payment.service.config.FeignConfig;
 import com.payment.service.dto.GatewayPaymentRequest;
 import com.payment.service.dto.GatewayPaymentResponse;
+import com.payment.service.dto.GatewayVoidRequest;
 import com.payment.service.exception.PaymentGatewayException;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -23,6 +24,15 @@ public interface PaymentGatewayClient {
     @Retry(name = "paymentGateway")
     GatewayPaymentResponse processPayment(@RequestBody GatewayPaymentRequest request);
     
+    /**
+     * Void a charge that has not settled, by our paymentReference
+     * Unknown or already voided references are accepted by the gateway
+     */
+    @PostMapping("/api/void")
+    @CircuitBreaker(name = "paymentGateway")
+    @Retry(name = "paymentGateway")
+    void voidPayment(@RequestBody GatewayVoidRequest request);
+    
     // Fallback method when circuit breaker opens
     default GatewayPaymentResponse processPaymentFallback(
             GatewayPaymentRequest request, Exception ex) {
@@ -0,0 +1,69 @@
+package com.payment.service.config;
+
+import com.payment.service.datasource.WorkloadPool;
+import com.payment.service.datasource.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkheads: one Hikari pool per workload so a callback burst
+ * cannot starve payment creation or status reads
+ */
+@Configuration
+@EnableConfigurationProperties(WorkloadPoolProperties.class)
+public class WorkloadDataSourceConfig {
+    
+    @Bean
+    public WorkloadRoutingDataSource workloadRoutingDataSource(
+            DataSourceProperties dataSourceProperties,
+            WorkloadPoolProperties poolProperties,
+            MeterRegistry meterRegistry) {
+        Map<Object, Object> pools = new HashMap<>();
+        for (WorkloadPool workload : WorkloadPool.values()) {
+            pools.put(workload, createPool(workload, dataSourceProperties,
+                poolProperties.getPool(workload), meterRegistry));
+        }
+        
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(pools);
+        routing.setDefaultTargetDataSource(pools.get(WorkloadPool.BACKGROUND));
+        return routing;
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadRoutingDataSource workloadRoutingDataSource) {
+        // Defer connection checkout until the first statement,
+        // by then the workload of the calling thread is known
+        return new LazyConnectionDataSourceProxy(workloadRoutingDataSource);
+    }
+    
+    private HikariDataSource createPool(WorkloadPool workload,
+                                        DataSourceProperties dataSourceProperties,
+                                        WorkloadPoolProperties.Pool settings,
+                                        MeterRegistry meterRegistry) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        
+        pool.setPoolName("payment-" + workload.name().toLowerCase());
+        pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+        pool.setMinimumIdle(settings.getMinimumIdle());
+        pool.setConnectionTimeout(settings.getConnectionTimeout());
+        
+        // Exports hikaricp.connections.acquire (wait time), .pending and .usage per pool
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
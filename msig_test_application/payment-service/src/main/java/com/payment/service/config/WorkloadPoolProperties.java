@@ -0,0 +1,29 @@
+package com.payment.service.config;
+
+import com.payment.service.datasource.WorkloadPool;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-workload Hikari pool sizing (payment.datasource.pools.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.datasource")
+public class WorkloadPoolProperties {
+    
+    private Map<WorkloadPool, Pool> pools = new EnumMap<>(WorkloadPool.class);
+    
+    public Pool getPool(WorkloadPool workload) {
+        return pools.getOrDefault(workload, new Pool());
+    }
+    
+    @Data
+    public static class Pool {
+        private int maximumPoolSize = 4;
+        private int minimumIdle = 1;
+        private long connectionTimeout = 30000;
+    }
+}
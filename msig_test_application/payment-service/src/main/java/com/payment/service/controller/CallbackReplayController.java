@@ -0,0 +1,39 @@
+package com.payment.service.controller;
+
+import com.payment.service.dto.ReplayStatus;
+import com.payment.service.service.CallbackReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/callbacks/replay")
+@Slf4j
+@RequiredArgsConstructor
+public class CallbackReplayController {
+    
+    private final CallbackReplayService replayService;
+    
+    /**
+     * Start replaying unprocessed callbacks
+     * Returns 409 if a replay is already running
+     */
+    @PostMapping
+    public ResponseEntity<ReplayStatus> startReplay() {
+        boolean started = replayService.start();
+        log.info("Callback replay requested, started: {}", started);
+        
+        HttpStatus status = started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(replayService.status());
+    }
+    
+    /**
+     * Progress of the current or last replay
+     */
+    @GetMapping
+    public ResponseEntity<ReplayStatus> getStatus() {
+        return ResponseEntity.ok(replayService.status());
+    }
+}
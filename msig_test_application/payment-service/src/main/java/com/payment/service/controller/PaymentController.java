@@ -1,14 +1,24 @@
 package com.payment.service.controller;
 
 import com.payment.service.dto.*;
+import com.payment.service.export.ExportFormat;
+import com.payment.service.export.PaymentExportService;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.service.BulkPaymentService;
 import com.payment.service.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -16,7 +26,11 @@ import jakarta.validation.Valid;
 @RequiredArgsConstructor
 public class PaymentController {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     private final PaymentService paymentService;
+    private final PaymentExportService exportService;
+    private final BulkPaymentService bulkPaymentService;
     
     /**
      * Create payment with idempotency
@@ -44,6 +58,30 @@ public class PaymentController {
         return ResponseEntity.status(status).body(response);
     }
     
+    /**
+     * Create up to 500 payments in one call
+     * Each entry carries its own idempotencyKey; repeats return the existing payment
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BulkPaymentResult>> createPayments(
+            @Valid @RequestBody BulkCreatePaymentRequest request) {
+        
+        log.info("Received bulk payment request with {} payments", request.getPayments().size());
+        return ResponseEntity.ok(bulkPaymentService.createPayments(request.getPayments()));
+    }
+    
+    /**
+     * Cancel the unfinished payments of expired or cancelled orders
+     * Returns all payments of those orders, so callers can spot ones that completed first
+     */
+    @PostMapping("/cancel")
+    public ResponseEntity<List<PaymentResponse>> cancelPayments(
+            @Valid @RequestBody CancelPaymentsRequest request) {
+        
+        log.info("Received cancel request for {} orders", request.getOrderIds().size());
+        return ResponseEntity.ok(bulkPaymentService.cancelPayments(request.getOrderIds(), request.getReason()));
+    }
+    
     /**
      * Webhook endpoint for payment gateway callbacks
      * CRITICAL: Must handle duplicate callbacks
@@ -76,4 +114,55 @@ public class PaymentController {
         PaymentResponse response = paymentService.getPayment(paymentId);
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * List payments, newest first, with keyset pagination
+     * Pass nextCursor from the previous page as ?after=
+     */
+    @GetMapping
+    public ResponseEntity<PaymentPage> listPayments(
+            @RequestParam(required = false) String orderId,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        PaymentQuery query = PaymentQuery.builder()
+            .orderId(orderId)
+            .status(status)
+            .from(from)
+            .to(to)
+            .build();
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(paymentService.findPayments(query, after, pageSize));
+    }
+    
+    /**
+     * Stream all payments created in [from, to) as CSV or NDJSON
+     * With gzip=true the body is a .gz file, not Content-Encoding
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        log.info("Exporting payments from {} to {}", from, to);
+        
+        String filename = String.format("payments-%s-%s.%s%s",
+            from.toLocalDate(), to.toLocalDate(), format.getExtension(), gzip ? ".gz" : "");
+        
+        StreamingResponseBody body = out -> exportService.export(from, to, format, gzip, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .contentType(MediaType.parseMediaType(
+                gzip ? "application/gzip" : format.getContentType()))
+            .body(body);
+    }
 }
\ No newline at end of file
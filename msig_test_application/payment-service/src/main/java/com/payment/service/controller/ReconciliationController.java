@@ -0,0 +1,30 @@
+package com.payment.service.controller;
+
+import com.payment.service.dto.ReconciliationSummary;
+import com.payment.service.reconciliation.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+@Slf4j
+@RequiredArgsConstructor
+public class ReconciliationController {
+    
+    private final ReconciliationService reconciliationService;
+    
+    /**
+     * Reconcile a gateway settlement file already in payment.reconciliation.dir
+     * @param file name relative to that directory
+     */
+    @PostMapping
+    public ResponseEntity<ReconciliationSummary> reconcile(@RequestParam String file)
+            throws IOException {
+        log.info("Reconciliation requested for: {}", file);
+        return ResponseEntity.ok(reconciliationService.reconcile(file));
+    }
+}
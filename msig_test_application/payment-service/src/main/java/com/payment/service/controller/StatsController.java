@@ -0,0 +1,27 @@
+package com.payment.service.controller;
+
+import com.payment.service.dto.StatsResponse;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.stats.RollingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    
+    private final RollingStats rollingStats;
+    
+    /**
+     * Payment transitions applied by this instance, from memory only
+     * Conversion ratios are relative to payments created (PENDING)
+     */
+    @GetMapping
+    public ResponseEntity<StatsResponse> getStats() {
+        return ResponseEntity.ok(rollingStats.snapshot(PaymentStatus.PENDING.name()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.payment.service.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Route all JDBC work of the annotated method to a dedicated connection pool
+ * Methods without this annotation use the BACKGROUND pool
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UseWorkloadPool {
+    WorkloadPool value();
+}
@@ -0,0 +1,9 @@
+package com.payment.service.datasource;
+
+public enum WorkloadPool {
+    CREATE,      // New payment creation
+    CALLBACK,    // Gateway callbacks (row locks on payments)
+    READ,        // Status reads
+    EXPORT,      // Streaming exports, one connection per running export
+    BACKGROUND   // Scheduled jobs, bulk gateway workers, reconciliation, callback replay
+}
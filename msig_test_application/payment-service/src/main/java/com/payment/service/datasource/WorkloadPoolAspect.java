@@ -0,0 +1,29 @@
+package com.payment.service.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies @UseWorkloadPool before the transaction interceptor
+ * so the transaction's connection comes from the selected pool
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadPoolAspect {
+    
+    @Around("@annotation(useWorkloadPool)")
+    public Object route(ProceedingJoinPoint joinPoint, UseWorkloadPool useWorkloadPool)
+            throws Throwable {
+        WorkloadPool previous = WorkloadPoolContext.set(useWorkloadPool.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadPoolContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.payment.service.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the workload pool selected for the current thread
+ */
+public final class WorkloadPoolContext {
+    
+    private static final ThreadLocal<WorkloadPool> CURRENT = new ThreadLocal<>();
+    
+    private WorkloadPoolContext() {
+    }
+    
+    public static WorkloadPool current() {
+        WorkloadPool pool = CURRENT.get();
+        return pool != null ? pool : WorkloadPool.BACKGROUND;
+    }
+    
+    /**
+     * Select a pool and return the previous selection so callers can restore it
+     */
+    public static WorkloadPool set(WorkloadPool pool) {
+        WorkloadPool previous = CURRENT.get();
+        CURRENT.set(pool);
+        return previous;
+    }
+    
+    public static void restore(WorkloadPool previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+    
+    /**
+     * @UseWorkloadPool for work handed to another thread, where the annotation cannot apply
+     */
+    public static Runnable bind(WorkloadPool pool, Runnable task) {
+        return () -> {
+            WorkloadPool previous = set(pool);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+    
+    public static <T> Callable<T> bind(WorkloadPool pool, Callable<T> task) {
+        return () -> {
+            WorkloadPool previous = set(pool);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.payment.service.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+
+/**
+ * Picks the Hikari pool that matches the workload of the calling thread
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadPoolContext.current();
+    }
+    
+    @Override
+    public void close() {
+        for (DataSource pool : getResolvedDataSources().values()) {
+            if (pool instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
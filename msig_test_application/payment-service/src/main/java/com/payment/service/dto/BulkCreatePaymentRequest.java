@@ -0,0 +1,15 @@
+package com.payment.service.dto;
+
+import lombok.Data;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BulkCreatePaymentRequest {
+    
+    @NotEmpty(message = "Payments cannot be empty")
+    @Size(max = 500, message = "At most 500 payments per request")
+    private List<@Valid CreatePaymentRequest> payments;
+}
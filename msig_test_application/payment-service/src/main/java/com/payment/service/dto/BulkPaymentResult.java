@@ -0,0 +1,18 @@
+package com.payment.service.dto;
+
+import com.payment.service.model.PaymentStatus;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one entry of a bulk create, created=false for an idempotent repeat
+ */
+@Data
+@Builder
+public class BulkPaymentResult {
+    private String idempotencyKey;
+    private String orderId;
+    private String paymentId;
+    private PaymentStatus status;
+    private boolean created;
+}
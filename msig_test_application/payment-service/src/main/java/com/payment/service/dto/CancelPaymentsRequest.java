@@ -0,0 +1,16 @@
+package com.payment.service.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class CancelPaymentsRequest {
+    
+    @NotEmpty(message = "Order IDs cannot be empty")
+    @Size(max = 500, message = "At most 500 orders per request")
+    private List<String> orderIds;
+    
+    private String reason;
+}
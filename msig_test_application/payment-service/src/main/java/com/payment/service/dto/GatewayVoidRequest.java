@@ -0,0 +1,12 @@
+package com.payment.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class GatewayVoidRequest {
+    private String paymentReference;
+    private String gatewayReference; // Null if the charge response never arrived
+    private String reason;
+}
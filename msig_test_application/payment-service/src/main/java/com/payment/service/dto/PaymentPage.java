@@ -0,0 +1,12 @@
+package com.payment.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class PaymentPage {
+    private List<PaymentSummary> items;
+    private String nextCursor; // Pass as ?after= for the next page, null on the last page
+}
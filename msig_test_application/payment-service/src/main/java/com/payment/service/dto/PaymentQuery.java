@@ -0,0 +1,18 @@
+package com.payment.service.dto;
+
+import com.payment.service.model.PaymentStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Filters for GET /api/payments, all optional
+ */
+@Data
+@Builder
+public class PaymentQuery {
+    private String orderId;
+    private PaymentStatus status;
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to;   // exclusive
+}
@@ -0,0 +1,25 @@
+package com.payment.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.payment.service.model.PaymentStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight payment row for list queries, read without entity hydration
+ */
+@Data
+@Builder
+public class PaymentSummary {
+    @JsonIgnore
+    private Long id; // Keyset tie-breaker, not exposed
+    private String paymentId;
+    private String orderId;
+    private BigDecimal amount;
+    private String currency;
+    private PaymentStatus status;
+    private String gatewayReference;
+    private LocalDateTime createdAt;
+}
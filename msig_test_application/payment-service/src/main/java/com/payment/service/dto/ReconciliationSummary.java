@@ -0,0 +1,16 @@
+package com.payment.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReconciliationSummary {
+    private String file;
+    private String report;            // Mismatch report (CSV)
+    private long rows;
+    private long matched;
+    private long mismatches;
+    private long transitionsApplied;  // Settled status applied through the callback path
+    private long elapsedMs;
+}
@@ -0,0 +1,17 @@
+package com.payment.service.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReplayStatus {
+    private boolean running;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long scanned;
+    private long replayed;
+    private long failed;
+    private long lastCallbackId; // Keyset position of the scan
+}
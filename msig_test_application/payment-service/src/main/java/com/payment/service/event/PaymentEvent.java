@@ -7,6 +7,7 @@ import java.math.BigDecimal;
 @Data
 @Builder
 public class PaymentEvent {
+    private String eventId;   // paymentId:sequence, stable across re-publishes
     private String paymentId;
     private String orderId;
     private String eventType; // PAYMENT_SUCCESS, PAYMENT_FAILED
@@ -14,4 +15,5 @@ public class PaymentEvent {
     private String currency;
     private Long timestamp;
     private Integer version;
+    private Long sequence;    // Monotonic per payment
 }
\ No newline at end of file
@@ -21,6 +21,20 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
     
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(
+            InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    
+    @ExceptionHandler(InvalidSettlementFileException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidSettlementFile(
+            InvalidSettlementFileException ex) {
+        log.warn("Rejected reconciliation request: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    
     @ExceptionHandler(PaymentGatewayException.class)
     public ResponseEntity<Map<String, Object>> handleGatewayError(
             PaymentGatewayException ex) {
@@ -0,0 +1,7 @@
+package com.payment.service.exception;
+
+public class InvalidSettlementFileException extends RuntimeException {
+    public InvalidSettlementFileException(String file) {
+        super("Not a settlement file in the reconciliation directory: " + file);
+    }
+}
@@ -0,0 +1,67 @@
+package com.payment.service.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * CLI export mode, writes one extract to a file and exits
+ *
+ * java -jar payment-service.jar --spring.main.web-application-type=none \
+ *   --payment.export.output=/data/payments-2024-05-01.csv.gz \
+ *   --payment.export.from=2024-05-01T00:00 --payment.export.to=2024-05-02T00:00 \
+ *   --payment.export.format=CSV --payment.export.gzip=true
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.export.output")
+public class PaymentExportRunner implements ApplicationRunner {
+    
+    private final PaymentExportService exportService;
+    private final ConfigurableApplicationContext context;
+    
+    @Value("${payment.export.output}")
+    private String output;
+    
+    @Value("${payment.export.from}")
+    private String from;
+    
+    @Value("${payment.export.to}")
+    private String to;
+    
+    @Value("${payment.export.format:CSV}")
+    private ExportFormat format;
+    
+    @Value("${payment.export.gzip:false}")
+    private boolean gzip;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode = 0;
+        Path path = Path.of(output);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            long rows = exportService.export(
+                LocalDateTime.parse(from), LocalDateTime.parse(to), format, gzip, out);
+            log.info("Export written to {} ({} rows)", path, rows);
+        } catch (Exception e) {
+            log.error("Export to {} failed", output, e);
+            exitCode = 1;
+        }
+        
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,202 @@
+package com.payment.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.service.datasource.UseWorkloadPool;
+import com.payment.service.datasource.WorkloadPool;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams payments in a date range straight from a JDBC cursor to an output stream
+ *
+ * Postgres only uses a server-side cursor when auto-commit is off and a
+ * fetch size is set, hence the read-only transaction. Rows are written as
+ * they arrive, so memory use does not depend on the number of rows.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentExportService {
+
+    private static final String EXPORT_SQL = """
+        SELECT payment_id, order_id, amount, currency, status, gateway_reference,
+               failure_reason, created_at, updated_at
+        FROM payments
+        WHERE created_at >= ? AND created_at < ?
+        ORDER BY created_at, id
+        """;
+
+    private static final String[] COLUMNS = {
+        "paymentId", "orderId", "amount", "currency", "status", "gatewayReference",
+        "failureReason", "createdAt", "updatedAt"
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payment.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * @param from inclusive
+     * @param to exclusive
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    @UseWorkloadPool(WorkloadPool.EXPORT)
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat format,
+                       boolean gzip, OutputStream out) throws IOException {
+        log.info("Exporting payments from {} to {} as {}{}", from, to, format, gzip ? " (gzip)" : "");
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == ExportFormat.CSV
+            ? new CsvRowWriter(writer)
+            : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(writer));
+
+        AtomicLong rows = new AtomicLong();
+        try {
+            rowWriter.start();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            });
+            rowWriter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+
+        log.info("Exported {} payments", rows.get());
+        return rows.get();
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writeField(rs.getString(i));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            // One object per line, no separator between root values
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField(COLUMNS[0], rs.getString(1));
+            generator.writeStringField(COLUMNS[1], rs.getString(2));
+            generator.writeNumberField(COLUMNS[2], rs.getBigDecimal(3));
+            generator.writeStringField(COLUMNS[3], rs.getString(4));
+            generator.writeStringField(COLUMNS[4], rs.getString(5));
+            generator.writeStringField(COLUMNS[5], rs.getString(6));
+            generator.writeStringField(COLUMNS[6], rs.getString(7));
+            generator.writeStringField(COLUMNS[7], toIsoString(rs.getTimestamp(8)));
+            generator.writeStringField(COLUMNS[8], toIsoString(rs.getTimestamp(9)));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+
+        private static String toIsoString(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.payment.service.http;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feign transport on shared JDK HttpClients
+ *
+ * Connect timeout and redirect handling are fixed per JDK HttpClient, so
+ * there is one client per distinct (connectTimeout, followRedirects) pair
+ * of Request.Options, built on first use. Feign clients with the same
+ * options share one HttpClient and so the same keep-alive pool. With HTTP_2 the client negotiates h2 over
+ * TLS via ALPN and tries an h2c upgrade on plain connections, keeping
+ * HTTP/1.1 for peers that decline. TLS sessions are cached by the
+ * client's SSLContext, so reconnects resume instead of a full handshake.
+ *
+ * The JDK pool has no per-host limit, so calls are admitted per host by a
+ * semaphore: on HTTP/1.1 an admitted call holds one connection, on HTTP/2
+ * it holds one stream. A call that waits longer than acquire-timeout
+ * fails with an IOException, which Feign turns into a RetryableException.
+ */
+public class PooledFeignClient implements Client {
+    
+    // Set by HttpClient itself, rejected when passed in
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+        "connection", "content-length", "expect", "host", "upgrade");
+    
+    /**
+     * The Request.Options a JDK HttpClient has to be built for
+     */
+    private record ClientOptions(long connectTimeoutMs, boolean followRedirects) {
+    }
+    
+    private final HttpClient.Version httpVersion;
+    private final SSLContext sslContext;
+    private final Map<ClientOptions, HttpClient> httpClients = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxConnectionsPerHost;
+    private final long acquireTimeoutMs;
+    private final Map<String, HostPool> hostPools = new ConcurrentHashMap<>();
+    
+    public PooledFeignClient(HttpClientProperties properties, SSLContext sslContext, MeterRegistry meterRegistry) {
+        this.httpVersion = properties.getHttpVersion();
+        this.sslContext = sslContext;
+        this.meterRegistry = meterRegistry;
+        this.maxConnectionsPerHost = properties.getMaxConnectionsPerHost();
+        this.acquireTimeoutMs = properties.getAcquireTimeoutMs();
+    }
+    
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        URI uri = URI.create(request.url());
+        HostPool pool = hostPools.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), HostPool::new);
+        
+        pool.acquire();
+        long startedAt = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient(options).send(
+                toHttpRequest(uri, request, options), HttpResponse.BodyHandlers.ofByteArray());
+            pool.timer(response.version()).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return toFeignResponse(request, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling " + request.url());
+        } finally {
+            pool.release();
+        }
+    }
+    
+    private HttpClient httpClient(Request.Options options) {
+        ClientOptions key = new ClientOptions(
+            options.connectTimeoutUnit().toMillis(options.connectTimeout()), options.isFollowRedirects());
+        return httpClients.computeIfAbsent(key, k -> HttpClient.newBuilder()
+            .version(httpVersion)
+            .connectTimeout(Duration.ofMillis(k.connectTimeoutMs()))
+            .followRedirects(k.followRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
+            .sslContext(sslContext)
+            .build());
+    }
+    
+    private static HttpRequest toHttpRequest(URI uri, Request request, Request.Options options) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(Duration.ofMillis(options.readTimeoutUnit().toMillis(options.readTimeout())));
+        
+        request.headers().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        
+        byte[] body = request.body();
+        return builder.method(request.httpMethod().name(), body != null
+                ? HttpRequest.BodyPublishers.ofByteArray(body)
+                : HttpRequest.BodyPublishers.noBody())
+            .build();
+    }
+    
+    private static Response toFeignResponse(Request request, HttpResponse<byte[]> response) {
+        Map<String, Collection<String>> headers = new HashMap<>(response.headers().map());
+        return Response.builder()
+            .request(request)
+            .status(response.statusCode())
+            .protocolVersion(response.version() == HttpClient.Version.HTTP_2
+                ? Request.ProtocolVersion.HTTP_2
+                : Request.ProtocolVersion.HTTP_1_1)
+            .headers(headers)
+            .body(response.body())
+            .build();
+    }
+    
+    /**
+     * Admission and metrics of one scheme://host:port
+     */
+    private final class HostPool {
+        private final String host;
+        private final Semaphore permits = new Semaphore(maxConnectionsPerHost, true);
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Counter acquireTimeouts;
+        private final Map<HttpClient.Version, Timer> timers = new EnumMap<>(HttpClient.Version.class);
+        
+        private HostPool(String host) {
+            this.host = host;
+            this.acquireTimeouts = meterRegistry.counter("http.client.pool.acquire.timeouts", "host", host);
+            Gauge.builder("http.client.pool.active", permits, p -> maxConnectionsPerHost - p.availablePermits())
+                .tag("host", host)
+                .register(meterRegistry);
+            Gauge.builder("http.client.pool.pending", pending, AtomicInteger::get)
+                .tag("host", host)
+                .register(meterRegistry);
+            Gauge.builder("http.client.pool.max", () -> maxConnectionsPerHost)
+                .tag("host", host)
+                .register(meterRegistry);
+            for (HttpClient.Version version : HttpClient.Version.values()) {
+                timers.put(version, Timer.builder("http.client.pool.requests")
+                    .tag("host", host)
+                    .tag("protocol", version.name())
+                    .register(meterRegistry));
+            }
+        }
+        
+        private void acquire() throws IOException {
+            pending.incrementAndGet();
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    acquireTimeouts.increment();
+                    throw new IOException("No free connection to " + host + " within " + acquireTimeoutMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a connection to " + host);
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+        
+        private void release() {
+            permits.release();
+        }
+        
+        private Timer timer(HttpClient.Version version) {
+            return timers.get(version);
+        }
+    }
+}
@@ -4,7 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 @Table(name = "payments", indexes = {
     @Index(name = "idx_order_id", columnList = "orderId"),
     @Index(name = "idx_idempotency_key", columnList = "idempotencyKey", unique = true),
-    @Index(name = "idx_gateway_ref", columnList = "gatewayReference")
+    @Index(name = "idx_gateway_ref", columnList = "gatewayReference"),
+    // Keyset pagination: every list filter has an index ending in (createdAt, id)
+    @Index(name = "idx_payment_keyset", columnList = "createdAt, id"),
+    @Index(name = "idx_order_keyset", columnList = "orderId, createdAt, id"),
+    @Index(name = "idx_status_keyset", columnList = "status, createdAt, id")
 })
 @Data
 @NoArgsConstructor
@@ -48,6 +52,9 @@ public class Payment {
     @Column(nullable = false)
     private Integer version; // Optimistic locking
     
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long eventSequence; // Sequence of the last published PaymentEvent
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -63,6 +70,9 @@ public class Payment {
         if (version == null) {
             version = 0;
         }
+        if (eventSequence == null) {
+            eventSequence = 0L;
+        }
     }
     
     @PreUpdate
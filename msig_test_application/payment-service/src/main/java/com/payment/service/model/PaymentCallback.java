@@ -3,13 +3,14 @@ package com.payment.service.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "payment_callbacks", indexes = {
     @Index(name = "idx_callback_idempotency", columnList = "callbackId", unique = true),
-    @Index(name = "idx_payment_ref", columnList = "paymentReference")
+    @Index(name = "idx_payment_ref", columnList = "paymentReference"),
+    @Index(name = "idx_callback_unprocessed", columnList = "processed, id")
 })
 @Data
 @NoArgsConstructor
@@ -1,9 +1,18 @@
 package com.payment.service.model;
 
+import java.util.Set;
+
 public enum PaymentStatus {
     PENDING,      // Initial state
     PROCESSING,   // Sent to gateway
     SUCCESS,      // Confirmed by gateway
     FAILED,       // Failed
-    REFUNDED      // Refunded
+    REFUNDED,     // Refunded
+    CANCELLED,    // Cancelled by the order before completion
+    REFUND_REQUIRED; // Captured by the gateway after the order cancelled it
+    
+    /**
+     * Not yet completed; the only states a payment may be moved out of by its own flow
+     */
+    public static final Set<PaymentStatus> IN_FLIGHT = Set.of(PENDING, PROCESSING);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.payment.service.reconciliation;
+
+public enum MismatchType {
+    UNKNOWN_REFERENCE,   // No payment with this gatewayReference
+    AMOUNT_MISMATCH,
+    CURRENCY_MISMATCH,
+    STATUS_MISMATCH,     // Settled status contradicts a terminal payment status
+    MALFORMED_ROW,
+    TRANSITION_FAILED    // Applying the settled status through the callback path failed
+}
@@ -0,0 +1,302 @@
+package com.payment.service.reconciliation;
+
+import com.payment.service.datasource.UseWorkloadPool;
+import com.payment.service.datasource.WorkloadPool;
+import com.payment.service.datasource.WorkloadPoolContext;
+import com.payment.service.dto.PaymentCallbackRequest;
+import com.payment.service.dto.PaymentSummary;
+import com.payment.service.dto.ReconciliationSummary;
+import com.payment.service.exception.InvalidSettlementFileException;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.repository.PaymentQueryRepository;
+import com.payment.service.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reconciles a gateway settlement file against the payments table
+ *
+ * Segments of the memory-mapped file are parsed in parallel. Each worker
+ * looks payments up in batches by gatewayReference, so heap use is bounded
+ * by parallelism x batch size regardless of file size. Mismatches are
+ * streamed to a CSV report. Settled outcomes for payments still in flight
+ * are applied through PaymentService.handleCallback, with a deterministic
+ * callbackId so a re-run does not apply them twice. Workers run on the
+ * BACKGROUND connection pool and are capped at its size.
+ *
+ * Only files inside payment.reconciliation.dir can be read, and reports are
+ * written to payment.reconciliation.report-dir, never next to the input.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+
+    private final PaymentQueryRepository paymentQueryRepository;
+    private final PaymentService paymentService;
+    private final Path inputDir;
+    private final Path reportDir;
+    private final int parallelism;
+    private final int batchSize;
+
+    public ReconciliationService(
+            PaymentQueryRepository paymentQueryRepository,
+            PaymentService paymentService,
+            @Value("${payment.reconciliation.dir:settlements/incoming}") Path inputDir,
+            @Value("${payment.reconciliation.report-dir:settlements/reports}") Path reportDir,
+            @Value("${payment.reconciliation.parallelism:0}") int parallelism,
+            @Value("${payment.reconciliation.batch-size:500}") int batchSize,
+            @Value("${payment.datasource.pools.background.maximum-pool-size:8}") int backgroundPoolSize) {
+        this.paymentQueryRepository = paymentQueryRepository;
+        this.paymentService = paymentService;
+        this.inputDir = inputDir.toAbsolutePath().normalize();
+        this.reportDir = reportDir.toAbsolutePath().normalize();
+        int requested = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.parallelism = Math.min(requested, backgroundPoolSize);
+        if (this.parallelism < requested) {
+            log.info("Reconciliation parallelism {} capped at the BACKGROUND pool size {}",
+                requested, backgroundPoolSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param fileName settlement file, relative to the reconciliation directory
+     */
+    @UseWorkloadPool(WorkloadPool.BACKGROUND)
+    public ReconciliationSummary reconcile(String fileName) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Path file = resolveInput(fileName);
+        Files.createDirectories(reportDir);
+        Path reportPath = reportDir.resolve(file.getFileName() + ".mismatches.csv");
+        log.info("Reconciling {} with {} workers, report: {}", file, parallelism, reportPath);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedWriter report = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8);
+             ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+
+            report.write("offset,gatewayReference,type,paymentId,expected,actual\n");
+            Run run = new Run(report);
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (SettlementFileReader.Segment segment : SettlementFileReader.split(channel, parallelism)) {
+                Callable<Void> task = () -> {
+                    reconcileSegment(channel, segment, run);
+                    return null;
+                };
+                futures.add(workers.submit(WorkloadPoolContext.bind(WorkloadPool.BACKGROUND, task)));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+
+            ReconciliationSummary summary = ReconciliationSummary.builder()
+                .file(file.toString())
+                .report(reportPath.toString())
+                .rows(run.rows.sum())
+                .matched(run.matched.sum())
+                .mismatches(run.mismatches.sum())
+                .transitionsApplied(run.transitionsApplied.sum())
+                .elapsedMs(System.currentTimeMillis() - startedAt)
+                .build();
+
+            log.info("Reconciliation finished: {}", summary);
+            return summary;
+        }
+    }
+
+    /**
+     * Confine the name to the input directory, following symlinks before the check
+     */
+    private Path resolveInput(String fileName) throws IOException {
+        Path file = inputDir.resolve(fileName).normalize();
+        if (!file.startsWith(inputDir) || file.equals(inputDir)) {
+            throw new InvalidSettlementFileException(fileName);
+        }
+        try {
+            Path real = file.toRealPath();
+            if (!real.startsWith(inputDir.toRealPath()) || !Files.isRegularFile(real)) {
+                throw new InvalidSettlementFileException(fileName);
+            }
+            return real;
+        } catch (NoSuchFileException e) {
+            throw new InvalidSettlementFileException(fileName);
+        }
+    }
+
+    private void reconcileSegment(FileChannel channel, SettlementFileReader.Segment segment, Run run)
+            throws IOException {
+        List<SettlementRecord> batch = new ArrayList<>(batchSize);
+        SettlementFileReader.read(channel, segment, record -> {
+            batch.add(record);
+            if (batch.size() >= batchSize) {
+                reconcileBatch(batch, run);
+                batch.clear();
+            }
+        });
+        reconcileBatch(batch, run);
+    }
+
+    private void reconcileBatch(List<SettlementRecord> batch, Run run) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<String> references = new ArrayList<>(batch.size());
+        for (SettlementRecord record : batch) {
+            if (record.gatewayReference() != null) {
+                references.add(record.gatewayReference());
+            }
+        }
+
+        Map<String, PaymentSummary> payments = new HashMap<>(references.size() * 2);
+        for (PaymentSummary payment : paymentQueryRepository.findByGatewayReferences(references)) {
+            payments.putIfAbsent(payment.getGatewayReference(), payment);
+        }
+
+        for (SettlementRecord record : batch) {
+            run.rows.increment();
+            reconcileRecord(record, payments.get(record.gatewayReference()), run);
+        }
+    }
+
+    private void reconcileRecord(SettlementRecord record, PaymentSummary payment, Run run) {
+        PaymentStatus settled = record.status() != null ? mapSettlementStatus(record.status()) : null;
+        if (record.gatewayReference() == null || settled == null) {
+            run.mismatch(record, MismatchType.MALFORMED_ROW, null, null, record.status());
+            return;
+        }
+        if (payment == null) {
+            run.mismatch(record, MismatchType.UNKNOWN_REFERENCE, null, null, null);
+            return;
+        }
+        if (payment.getAmount().compareTo(record.amount()) != 0) {
+            run.mismatch(record, MismatchType.AMOUNT_MISMATCH, payment.getPaymentId(),
+                payment.getAmount().toPlainString(), record.amount().toPlainString());
+            return;
+        }
+        if (!payment.getCurrency().equalsIgnoreCase(record.currency())) {
+            run.mismatch(record, MismatchType.CURRENCY_MISMATCH, payment.getPaymentId(),
+                payment.getCurrency(), record.currency());
+            return;
+        }
+
+        PaymentStatus current = payment.getStatus();
+        if (current == settled) {
+            run.matched.increment();
+            return;
+        }
+
+        boolean inFlight = current == PaymentStatus.PENDING || current == PaymentStatus.PROCESSING;
+        if (inFlight && settled != PaymentStatus.REFUNDED) {
+            applyTransition(record, payment, settled, run);
+            return;
+        }
+
+        run.mismatch(record, MismatchType.STATUS_MISMATCH, payment.getPaymentId(),
+            current.name(), settled.name());
+    }
+
+    private void applyTransition(SettlementRecord record, PaymentSummary payment,
+                                 PaymentStatus settled, Run run) {
+        PaymentCallbackRequest callback = new PaymentCallbackRequest();
+        callback.setCallbackId("SETTLEMENT-" + record.gatewayReference() + "-" + settled);
+        callback.setPaymentReference(payment.getPaymentId());
+        callback.setStatus(settled.name());
+        callback.setTransactionId(record.gatewayReference());
+        if (settled == PaymentStatus.FAILED) {
+            callback.setFailureReason("Failed per settlement file");
+        }
+
+        try {
+            paymentService.handleCallback(callback);
+            run.transitionsApplied.increment();
+        } catch (Exception e) {
+            log.error("Failed to apply settlement for payment: {}", payment.getPaymentId(), e);
+            run.mismatch(record, MismatchType.TRANSITION_FAILED, payment.getPaymentId(),
+                payment.getStatus().name(), settled.name());
+        }
+    }
+
+    private PaymentStatus mapSettlementStatus(String status) {
+        return switch (status) {
+            case "SUCCESS", "SETTLED", "COMPLETED" -> PaymentStatus.SUCCESS;
+            case "FAILED", "DECLINED", "REVERSED" -> PaymentStatus.FAILED;
+            case "REFUNDED" -> PaymentStatus.REFUNDED;
+            default -> null;
+        };
+    }
+
+    private void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IOException("Reconciliation worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Counters and report writer shared by the workers of one run
+     */
+    private static final class Run {
+        private final Writer report;
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder mismatches = new LongAdder();
+        private final LongAdder transitionsApplied = new LongAdder();
+
+        private Run(Writer report) {
+            this.report = report;
+        }
+
+        private void mismatch(SettlementRecord record, MismatchType type, String paymentId,
+                              String expected, String actual) {
+            mismatches.increment();
+            String line = String.join(",",
+                String.valueOf(record.offset()),
+                nullToEmpty(record.gatewayReference()),
+                type.name(),
+                nullToEmpty(paymentId),
+                nullToEmpty(expected),
+                nullToEmpty(actual)) + "\n";
+            try {
+                synchronized (report) {
+                    report.write(line);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String nullToEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+}
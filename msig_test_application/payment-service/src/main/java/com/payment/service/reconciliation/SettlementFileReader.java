@@ -0,0 +1,162 @@
+package com.payment.service.reconciliation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Memory-mapped reader for settlement CSV files
+ *
+ * Expected layout, header line first, no quoted fields:
+ *   gatewayReference,amount,currency,status
+ *
+ * The file is split into line-aligned segments that can be parsed in
+ * parallel. The tokenizer walks the mapped bytes and only records field
+ * offsets; bytes are copied out only for the fields a record needs.
+ */
+public final class SettlementFileReader {
+
+    private static final int FIELD_COUNT = 4;
+    private static final int MAX_SEGMENT_BYTES = 256 * 1024 * 1024;
+    private static final int MAX_FIELD_BYTES = 256;
+
+    private SettlementFileReader() {
+    }
+
+    public record Segment(long start, long end, boolean first) {
+    }
+
+    /**
+     * Split the file into at least parallelism segments, each ending on a line break
+     */
+    public static List<Segment> split(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long count = Math.max(parallelism, (size + MAX_SEGMENT_BYTES - 1) / MAX_SEGMENT_BYTES);
+        long nominal = Math.max(1, size / count);
+
+        List<Segment> segments = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + nominal >= size ? size : nextLineStart(channel, start + nominal);
+            segments.add(new Segment(start, end, start == 0));
+            start = end;
+        }
+        return segments;
+    }
+
+    /**
+     * Parse every row of a segment. Malformed rows are reported with a null reference
+     */
+    public static void read(FileChannel channel, Segment segment,
+                            Consumer<SettlementRecord> consumer) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+            segment.start(), segment.end() - segment.start());
+
+        int[] fieldStart = new int[FIELD_COUNT];
+        int[] fieldEnd = new int[FIELD_COUNT];
+        byte[] scratch = new byte[MAX_FIELD_BYTES];
+
+        int limit = buffer.limit();
+        int position = segment.first() ? skipLine(buffer, 0, limit) : 0;
+
+        while (position < limit) {
+            int fields = 0;
+            int lineStart = position;
+            fieldStart[0] = position;
+
+            // Tokenize one line: only offsets, no copying
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == ',') {
+                    if (fields < FIELD_COUNT) {
+                        fieldEnd[fields] = position;
+                    }
+                    fields++;
+                    if (fields < FIELD_COUNT) {
+                        fieldStart[fields] = position + 1;
+                    }
+                }
+                position++;
+            }
+
+            int lineEnd = position;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (fields < FIELD_COUNT) {
+                fieldEnd[fields] = lineEnd;
+            }
+            fields++;
+            position++; // skip '\n'
+
+            if (lineEnd == lineStart) {
+                continue; // blank line
+            }
+            long offset = segment.start() + lineStart;
+            consumer.accept(toRecord(buffer, offset, fields, fieldStart, fieldEnd, scratch));
+        }
+    }
+
+    private static SettlementRecord toRecord(ByteBuffer buffer, long offset, int fields,
+                                             int[] fieldStart, int[] fieldEnd, byte[] scratch) {
+        if (fields != FIELD_COUNT) {
+            return new SettlementRecord(offset, null, null, null, null);
+        }
+        try {
+            return new SettlementRecord(
+                offset,
+                text(buffer, fieldStart[0], fieldEnd[0], scratch),
+                new BigDecimal(text(buffer, fieldStart[1], fieldEnd[1], scratch)),
+                text(buffer, fieldStart[2], fieldEnd[2], scratch),
+                text(buffer, fieldStart[3], fieldEnd[3], scratch).toUpperCase());
+        } catch (RuntimeException e) {
+            return new SettlementRecord(offset, null, null, null, null);
+        }
+    }
+
+    /**
+     * Oversized fields make the record malformed rather than being cut short
+     */
+    private static String text(ByteBuffer buffer, int start, int end, byte[] scratch) {
+        int length = end - start;
+        if (length > scratch.length) {
+            throw new IllegalArgumentException("Field longer than " + scratch.length + " bytes");
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static int skipLine(ByteBuffer buffer, int position, int limit) {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position + 1;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(8192);
+        long position = from;
+        while (true) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (chunk.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
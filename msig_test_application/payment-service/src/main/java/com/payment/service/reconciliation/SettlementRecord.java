@@ -0,0 +1,15 @@
+package com.payment.service.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * One settlement row, materialized from the mapped file only for the fields we compare
+ */
+public record SettlementRecord(
+    long offset, // Byte offset of the row in the file
+    String gatewayReference,
+    BigDecimal amount,
+    String currency,
+    String status
+) {
+}
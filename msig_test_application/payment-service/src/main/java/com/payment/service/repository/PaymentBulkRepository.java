@@ -0,0 +1,154 @@
+package com.payment.service.repository;
+
+import com.payment.service.model.Payment;
+import com.payment.service.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Multi-row payment writes in plain SQL
+ *
+ * Hibernate cannot batch inserts with an IDENTITY key, so bulk creates go
+ * out as one JDBC batch. Duplicate idempotency keys are skipped by the
+ * unique index instead of failing the batch; callers read the rows back by
+ * key to see which payment each key ended up with.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentBulkRepository {
+    
+    private static final String INSERT_SQL = """
+        INSERT INTO payments (payment_id, order_id, idempotency_key, amount, currency, status,
+                              version, event_sequence, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?)
+        ON CONFLICT (idempotency_key) DO NOTHING
+        """;
+    
+    private static final RowMapper<Payment> PAYMENT_MAPPER = (rs, rowNum) -> Payment.builder()
+        .id(rs.getLong("id"))
+        .paymentId(rs.getString("payment_id"))
+        .orderId(rs.getString("order_id"))
+        .idempotencyKey(rs.getString("idempotency_key"))
+        .amount(rs.getBigDecimal("amount"))
+        .currency(rs.getString("currency"))
+        .status(PaymentStatus.valueOf(rs.getString("status")))
+        .gatewayReference(rs.getString("gateway_reference"))
+        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+        .build();
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public void insertAll(List<Payment> payments) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, payments, payments.size(), (ps, payment) -> {
+            Timestamp now = Timestamp.valueOf(payment.getCreatedAt());
+            ps.setString(1, payment.getPaymentId());
+            ps.setString(2, payment.getOrderId());
+            ps.setString(3, payment.getIdempotencyKey());
+            ps.setBigDecimal(4, payment.getAmount());
+            ps.setString(5, payment.getCurrency());
+            ps.setString(6, payment.getStatus().name());
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+    
+    /**
+     * A payment moved to CANCELLED, with the status it had before
+     */
+    public record CancelledPayment(String paymentId, String currency, PaymentStatus previousStatus,
+                                   String gatewayReference) {
+    }
+    
+    /**
+     * Cancel the payments of these orders that have not completed
+     * @return the payments cancelled
+     */
+    public List<CancelledPayment> cancelByOrderIds(Collection<String> orderIds, String reason, LocalDateTime now) {
+        return jdbcTemplate.query("""
+            WITH target AS (
+                SELECT id, status FROM payments
+                WHERE order_id IN (:orderIds) AND status IN ('PENDING', 'PROCESSING')
+                FOR UPDATE
+            )
+            UPDATE payments p
+            SET status = 'CANCELLED', failure_reason = :reason, updated_at = :now, version = p.version + 1
+            FROM target
+            WHERE p.id = target.id AND p.status IN ('PENDING', 'PROCESSING')
+            RETURNING p.payment_id, p.currency, target.status AS previous_status, p.gateway_reference
+            """, new MapSqlParameterSource()
+                .addValue("orderIds", orderIds)
+                .addValue("reason", reason)
+                .addValue("now", Timestamp.valueOf(now)),
+            (rs, rowNum) -> new CancelledPayment(
+                rs.getString("payment_id"),
+                rs.getString("currency"),
+                PaymentStatus.valueOf(rs.getString("previous_status")),
+                rs.getString("gateway_reference")));
+    }
+    
+    /**
+     * Flag payments of these orders that were captured although the order gave up on them
+     * Takes the next event sequence, so the caller can publish the flag
+     * @return the flagged payments
+     */
+    public List<Payment> flagCapturedByOrderIds(Collection<String> orderIds, String reason, LocalDateTime now) {
+        return jdbcTemplate.query("""
+            UPDATE payments
+            SET status = 'REFUND_REQUIRED', failure_reason = :reason, updated_at = :now,
+                version = version + 1, event_sequence = event_sequence + 1
+            WHERE order_id IN (:orderIds) AND status = 'SUCCESS'
+            RETURNING id, payment_id, order_id, idempotency_key, amount, currency, status,
+                      gateway_reference, created_at, event_sequence
+            """, new MapSqlParameterSource()
+                .addValue("orderIds", orderIds)
+                .addValue("reason", reason)
+                .addValue("now", Timestamp.valueOf(now)),
+            (rs, rowNum) -> {
+                Payment payment = PAYMENT_MAPPER.mapRow(rs, rowNum);
+                payment.setEventSequence(rs.getLong("event_sequence"));
+                return payment;
+            });
+    }
+    
+    public List<Payment> findByOrderIds(Collection<String> orderIds) {
+        return jdbcTemplate.query("""
+            SELECT id, payment_id, order_id, idempotency_key, amount, currency, status,
+                   gateway_reference, created_at
+            FROM payments
+            WHERE order_id IN (:orderIds)
+            """, new MapSqlParameterSource("orderIds", orderIds), PAYMENT_MAPPER);
+    }
+    
+    /**
+     * PENDING payments created before the cutoff, oldest first
+     */
+    public List<Payment> findStalePending(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.query("""
+            SELECT id, payment_id, order_id, idempotency_key, amount, currency, status,
+                   gateway_reference, created_at
+            FROM payments
+            WHERE status = 'PENDING' AND created_at < :createdBefore
+            ORDER BY created_at
+            LIMIT :limit
+            """, new MapSqlParameterSource()
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore))
+                .addValue("limit", limit), PAYMENT_MAPPER);
+    }
+    
+    public List<Payment> findByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        return jdbcTemplate.query("""
+            SELECT id, payment_id, order_id, idempotency_key, amount, currency, status,
+                   gateway_reference, created_at
+            FROM payments
+            WHERE idempotency_key IN (:keys)
+            """, new MapSqlParameterSource("keys", idempotencyKeys), PAYMENT_MAPPER);
+    }
+}
@@ -1,9 +1,11 @@
 package com.payment.service.repository;
 
 import com.payment.service.model.PaymentCallback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,8 @@ public interface PaymentCallbackRepository extends JpaRepository<PaymentCallback
     Optional<PaymentCallback> findByCallbackId(String callbackId);
     
     boolean existsByCallbackId(String callbackId);
+    
+    // Keyset scan of callbacks left for manual review (idx_callback_unprocessed)
+    List<PaymentCallback> findByProcessedFalseAndIdGreaterThanOrderByIdAsc(
+        Long afterId, Pageable pageable);
 }
\ No newline at end of file
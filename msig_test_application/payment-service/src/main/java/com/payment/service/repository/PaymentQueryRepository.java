@@ -0,0 +1,96 @@
+package com.payment.service.repository;
+
+import com.payment.service.dto.PaymentCursor;
+import com.payment.service.dto.PaymentQuery;
+import com.payment.service.dto.PaymentSummary;
+import com.payment.service.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only payment list queries in plain SQL
+ *
+ * Pages are addressed by keyset (created_at, id) instead of OFFSET, so each
+ * page is an index range scan that costs the same at any depth.
+ * Rows are mapped straight into PaymentSummary, no entities are hydrated.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentQueryRepository {
+    
+    private static final String SELECT_SUMMARY = """
+        SELECT id, payment_id, order_id, amount, currency, status,
+               gateway_reference, created_at
+        FROM payments
+        WHERE 1 = 1
+        """;
+    
+    private static final RowMapper<PaymentSummary> SUMMARY_MAPPER = (rs, rowNum) ->
+        PaymentSummary.builder()
+            .id(rs.getLong("id"))
+            .paymentId(rs.getString("payment_id"))
+            .orderId(rs.getString("order_id"))
+            .amount(rs.getBigDecimal("amount"))
+            .currency(rs.getString("currency"))
+            .status(PaymentStatus.valueOf(rs.getString("status")))
+            .gatewayReference(rs.getString("gateway_reference"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    /**
+     * Newest first. Returns up to limit rows strictly after the cursor
+     */
+    public List<PaymentSummary> findPage(PaymentQuery query, PaymentCursor after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        
+        if (query.getOrderId() != null) {
+            sql.append(" AND order_id = :orderId");
+            params.addValue("orderId", query.getOrderId());
+        }
+        if (query.getStatus() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", query.getStatus().name());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND created_at >= :from");
+            params.addValue("from", query.getFrom());
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND created_at < :to");
+            params.addValue("to", query.getTo());
+        }
+        if (after != null) {
+            // Row-value comparison lets Postgres seek directly in the (…, created_at, id) index
+            sql.append(" AND (created_at, id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", after.createdAt());
+            params.addValue("afterId", after.id());
+        }
+        
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        
+        return jdbcTemplate.query(sql.toString(), params, SUMMARY_MAPPER);
+    }
+    
+    /**
+     * Batched lookup by gateway reference (idx_gateway_ref)
+     */
+    public List<PaymentSummary> findByGatewayReferences(Collection<String> gatewayReferences) {
+        if (gatewayReferences.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            SELECT_SUMMARY + " AND gateway_reference IN (:refs)",
+            new MapSqlParameterSource("refs", gatewayReferences),
+            SUMMARY_MAPPER);
+    }
+}
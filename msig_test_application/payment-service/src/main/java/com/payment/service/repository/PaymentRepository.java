@@ -4,11 +4,15 @@ import com.payment.service.model.Payment;
 import com.payment.service.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -26,4 +30,38 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByPaymentIdWithLock(@Param("paymentId") String paymentId);
     
     boolean existsByIdempotencyKey(String idempotencyKey);
+    
+    /**
+     * Compare-and-set status change, only from one of the given predecessors
+     * Null gatewayReference or failureReason keep the stored value
+     * @return 0 if the payment is missing or in another state
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("""
+        UPDATE Payment p
+        SET p.status = :next,
+            p.gatewayReference = COALESCE(:gatewayReference, p.gatewayReference),
+            p.failureReason = COALESCE(:failureReason, p.failureReason),
+            p.eventSequence = p.eventSequence + :sequenceIncrement,
+            p.updatedAt = :now,
+            p.version = p.version + 1
+        WHERE p.paymentId = :paymentId
+          AND p.status IN :predecessors
+        """)
+    int transition(String paymentId, PaymentStatus next, Collection<PaymentStatus> predecessors,
+                   String gatewayReference, String failureReason, long sequenceIncrement, 
+                   LocalDateTime now);
+    
+    /**
+     * Record the gateway reference without touching the status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("""
+        UPDATE Payment p
+        SET p.gatewayReference = :gatewayReference, p.updatedAt = :now
+        WHERE p.paymentId = :paymentId
+        """)
+    int setGatewayReference(String paymentId, String gatewayReference, LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.payment.service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Rejects gateway callbacks whose signature does not match the raw body
+ *
+ * The body is read once into a per-thread buffer, verified, and then
+ * replayed to the controller from the same buffer. Runs after admission control.
+ */
+@Component
+@Slf4j
+@Order(2)
+@ConditionalOnProperty(name = "payment.callback.signature.enabled", havingValue = "true")
+public class CallbackSignatureFilter extends OncePerRequestFilter {
+
+    private static final String CALLBACK_PATH = "/api/payments/callback";
+
+    private final CallbackSignatureVerifier verifier;
+    private final CallbackSignatureProperties properties;
+    private final ThreadLocal<byte[]> bodyBuffer = ThreadLocal.withInitial(() -> new byte[4096]);
+
+    private final Counter valid;
+    private final Counter invalid;
+    private final Counter missing;
+
+    public CallbackSignatureFilter(CallbackSignatureVerifier verifier,
+                                   CallbackSignatureProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.verifier = verifier;
+        this.properties = properties;
+        this.valid = meterRegistry.counter("payment.callback.signature", "result", "valid");
+        this.invalid = meterRegistry.counter("payment.callback.signature", "result", "invalid");
+        this.missing = meterRegistry.counter("payment.callback.signature", "result", "missing");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equalsIgnoreCase(request.getMethod())
+            && CALLBACK_PATH.equals(request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String signature = request.getHeader(properties.getHeader());
+        if (signature == null) {
+            missing.increment();
+            reject(response, HttpStatus.UNAUTHORIZED, "Missing callback signature");
+            return;
+        }
+
+        int length = readBody(request);
+        if (length < 0) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Callback body too large");
+            return;
+        }
+
+        byte[] body = bodyBuffer.get();
+        String keyId = request.getHeader(properties.getKeyIdHeader());
+        if (!verifier.verify(body, 0, length, signature, keyId)) {
+            invalid.increment();
+            log.warn("Invalid callback signature, keyId: {}", keyId);
+            reject(response, HttpStatus.UNAUTHORIZED, "Invalid callback signature");
+            return;
+        }
+
+        valid.increment();
+        filterChain.doFilter(new CachedBodyRequest(request, body, length), response);
+    }
+
+    /**
+     * Read the body into the reusable buffer, growing it if needed
+     * Returns -1 if the body exceeds the configured limit
+     */
+    private int readBody(HttpServletRequest request) throws IOException {
+        byte[] buffer = bodyBuffer.get();
+        int length = 0;
+        InputStream in = request.getInputStream();
+
+        while (true) {
+            if (length == buffer.length) {
+                if (buffer.length >= properties.getMaxBodyBytes()) {
+                    return in.read() == -1 ? length : -1;
+                }
+                buffer = Arrays.copyOf(buffer,
+                    Math.min(buffer.length * 2, properties.getMaxBodyBytes()));
+                bodyBuffer.set(buffer);
+            }
+            int read = in.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                return length;
+            }
+            length += read;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(String.format(
+            "{\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
+            status.value(), status.getReasonPhrase(), message));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final int length;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body, int length) {
+            super(request);
+            this.body = body;
+            this.length = length;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                private int position;
+
+                @Override
+                public int read() {
+                    return position < length ? body[position++] & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (position >= length) {
+                        return -1;
+                    }
+                    int count = Math.min(len, length - position);
+                    System.arraycopy(body, position, b, off, count);
+                    position += count;
+                    return count;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return position >= length;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already buffered, so all of it is available at once
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    Objects.requireNonNull(readListener, "readListener");
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return length;
+        }
+    }
+}
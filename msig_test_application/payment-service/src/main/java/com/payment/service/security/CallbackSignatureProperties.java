@@ -0,0 +1,63 @@
+package com.payment.service.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Webhook signature settings (payment.callback.signature.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.callback.signature")
+public class CallbackSignatureProperties {
+    
+    // Placeholders that must never verify real webhooks
+    private static final Set<String> PLACEHOLDER_SECRETS = Set.of("change-me", "changeme");
+    
+    private boolean enabled = false;
+    
+    private String algorithm = "HmacSHA256";
+    
+    private String header = "X-Signature";
+    
+    private String keyIdHeader = "X-Signature-Key-Id";
+    
+    // Pre-initialized Mac instances per key
+    private int poolSize = 8;
+    
+    private int maxBodyBytes = 64 * 1024;
+    
+    // All keys listed here are accepted, which allows overlapping rotation
+    private List<Key> keys = new ArrayList<>();
+    
+    /**
+     * Fail startup if verification is enabled without a real secret for every key
+     */
+    void validate() {
+        if (!enabled) {
+            return;
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("payment.callback.signature.enabled requires at least one key");
+        }
+        for (Key key : keys) {
+            if (!key.hasSecret() || PLACEHOLDER_SECRETS.contains(key.getSecret().trim().toLowerCase())) {
+                throw new IllegalStateException("Callback signature key '" + key.getId()
+                    + "' has no secret configured, set CALLBACK_SIGNATURE_SECRET");
+            }
+        }
+    }
+    
+    @Data
+    public static class Key {
+        private String id;
+        private String secret;
+        
+        boolean hasSecret() {
+            return secret != null && !secret.isBlank();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.payment.service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Verifies gateway webhook signatures (hex HMAC over the raw request body)
+ *
+ * Mac instances are created and keyed up front and pooled per key, and the
+ * decoded/computed digests go into per-thread scratch buffers, so a
+ * verification does not allocate on the hot path.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(CallbackSignatureProperties.class)
+public class CallbackSignatureVerifier {
+
+    private final Map<String, MacPool> pools = new LinkedHashMap<>();
+    private final int macLength;
+    private final ThreadLocal<Scratch> scratch;
+
+    public CallbackSignatureVerifier(CallbackSignatureProperties properties) {
+        properties.validate();
+        for (CallbackSignatureProperties.Key key : properties.getKeys()) {
+            // Only possible with verification disabled, validate() rejects it otherwise
+            if (!key.hasSecret()) {
+                continue;
+            }
+            pools.put(key.getId(), new MacPool(properties.getAlgorithm(),
+                key.getSecret(), properties.getPoolSize()));
+        }
+        this.macLength = macLength(properties.getAlgorithm());
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(macLength));
+
+        log.info("Callback signature verifier initialized with {} active key(s)", pools.size());
+    }
+
+    /**
+     * @param keyId key named by the gateway, or null to try every active key
+     */
+    public boolean verify(byte[] body, int offset, int length, String signatureHex, String keyId) {
+        if (signatureHex == null || pools.isEmpty()) {
+            return false;
+        }
+
+        Scratch buffers = scratch.get();
+        if (!decodeHex(signatureHex, buffers.expected)) {
+            return false;
+        }
+
+        if (keyId != null) {
+            MacPool pool = pools.get(keyId);
+            return pool != null && matches(pool, body, offset, length, buffers);
+        }
+
+        // Key rotation: old and new keys are active at the same time
+        for (MacPool pool : pools.values()) {
+            if (matches(pool, body, offset, length, buffers)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(MacPool pool, byte[] body, int offset, int length, Scratch buffers) {
+        Mac mac = pool.borrow();
+        try {
+            mac.update(body, offset, length);
+            mac.doFinal(buffers.computed, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("Signature buffer too small", e);
+        } finally {
+            pool.release(mac);
+        }
+        return constantTimeEquals(buffers.expected, buffers.computed);
+    }
+
+    // Does not short-circuit, so timing does not reveal the matching prefix
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < a.length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    private static boolean decodeHex(String hex, byte[] out) {
+        if (hex.length() != out.length * 2) {
+            return false;
+        }
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return false;
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return true;
+    }
+
+    private static int macLength(String algorithm) {
+        try {
+            return Mac.getInstance(algorithm).getMacLength();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unsupported signature algorithm: " + algorithm, e);
+        }
+    }
+
+    private static final class Scratch {
+        private final byte[] expected;
+        private final byte[] computed;
+
+        private Scratch(int macLength) {
+            this.expected = new byte[macLength];
+            this.computed = new byte[macLength];
+        }
+    }
+
+    private static final class MacPool {
+        private final SecretKeySpec keySpec;
+        private final ArrayBlockingQueue<Mac> idle;
+
+        private MacPool(String algorithm, String secret, int size) {
+            this.keySpec = new SecretKeySpec(
+                secret.getBytes(StandardCharsets.UTF_8), algorithm);
+            this.idle = new ArrayBlockingQueue<>(size);
+            for (int i = 0; i < size; i++) {
+                idle.offer(newMac());
+            }
+        }
+
+        private Mac borrow() {
+            Mac mac = idle.poll();
+            // Pool exhausted: create an extra instance rather than block
+            return mac != null ? mac : newMac();
+        }
+
+        private void release(Mac mac) {
+            idle.offer(mac);
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance(keySpec.getAlgorithm());
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialize " + keySpec.getAlgorithm(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.payment.service.service;
+
+import com.payment.service.client.PaymentGatewayClient;
+import com.payment.service.datasource.UseWorkloadPool;
+import com.payment.service.datasource.WorkloadPool;
+import com.payment.service.datasource.WorkloadPoolContext;
+import com.payment.service.dto.BulkPaymentResult;
+import com.payment.service.dto.CreatePaymentRequest;
+import com.payment.service.dto.GatewayVoidRequest;
+import com.payment.service.dto.PaymentResponse;
+import com.payment.service.model.Payment;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.repository.PaymentBulkRepository;
+import com.payment.service.repository.PaymentBulkRepository.CancelledPayment;
+import com.payment.service.stats.RollingStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates many payments in one request with the same idempotency rules as createPayment
+ *
+ * All rows are written with one batched insert and read back by key, so
+ * keys seen before, and keys raced by a concurrent request, resolve to the
+ * existing payment. Gateway processing of the new payments starts after
+ * commit on a pool with a bounded queue; once it is full the committing
+ * thread runs the task itself, which pushes back on bulk callers. Payments
+ * whose processing never started, because the instance stopped first, are
+ * re-submitted by a sweep once they have been PENDING for stale-after-ms.
+ * Processing, voids and the sweep run on the BACKGROUND connection pool,
+ * also when the committing thread runs a task itself.
+ */
+@Service
+@Slf4j
+public class BulkPaymentService {
+    
+    private final PaymentBulkRepository bulkRepository;
+    private final PaymentService paymentService;
+    private final PaymentEventPublisher eventPublisher;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final RollingStats rollingStats;
+    private final ThreadPoolExecutor processingPool;
+    private final Duration staleAfter;
+    private final int sweepBatchSize;
+    private final Duration shutdownTimeout;
+    
+    public BulkPaymentService(
+            PaymentBulkRepository bulkRepository,
+            PaymentService paymentService,
+            PaymentEventPublisher eventPublisher,
+            PaymentGatewayClient paymentGatewayClient,
+            RollingStats rollingStats,
+            @Value("${payment.bulk.processing-concurrency:8}") int processingConcurrency,
+            @Value("${payment.bulk.queue-capacity:1000}") int queueCapacity,
+            @Value("${payment.bulk.stale-after-ms:300000}") long staleAfterMs,
+            @Value("${payment.bulk.sweep-batch-size:200}") int sweepBatchSize,
+            @Value("${payment.bulk.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.bulkRepository = bulkRepository;
+        this.paymentService = paymentService;
+        this.eventPublisher = eventPublisher;
+        this.paymentGatewayClient = paymentGatewayClient;
+        this.rollingStats = rollingStats;
+        this.processingPool = new ThreadPoolExecutor(processingConcurrency, processingConcurrency,
+            0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.sweepBatchSize = sweepBatchSize;
+        this.shutdownTimeout = Duration.ofMillis(shutdownTimeoutMs);
+    }
+    
+    /**
+     * @return one result per request, in request order
+     */
+    @Transactional
+    @UseWorkloadPool(WorkloadPool.CREATE)
+    public List<BulkPaymentResult> createPayments(List<CreatePaymentRequest> requests) {
+        log.info("Creating {} payments in bulk", requests.size());
+        
+        // First entry wins for a key repeated inside the request
+        Map<String, Payment> candidates = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (CreatePaymentRequest request : requests) {
+            candidates.computeIfAbsent(request.getIdempotencyKey(), key -> Payment.builder()
+                .paymentId(generatePaymentId())
+                .orderId(request.getOrderId())
+                .idempotencyKey(key)
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .status(PaymentStatus.PENDING)
+                .createdAt(now)
+                .build());
+        }
+        
+        bulkRepository.insertAll(new ArrayList<>(candidates.values()));
+        
+        Map<String, Payment> stored = new HashMap<>(candidates.size() * 2);
+        for (Payment payment : bulkRepository.findByIdempotencyKeys(candidates.keySet())) {
+            stored.put(payment.getIdempotencyKey(), payment);
+        }
+        
+        List<Payment> created = new ArrayList<>();
+        List<BulkPaymentResult> results = new ArrayList<>(requests.size());
+        Set<String> reported = new HashSet<>();
+        for (CreatePaymentRequest request : requests) {
+            String key = request.getIdempotencyKey();
+            Payment payment = stored.get(key);
+            boolean isNew = payment.getPaymentId().equals(candidates.get(key).getPaymentId())
+                && reported.add(key);
+            if (isNew) {
+                created.add(payment);
+                rollingStats.record(PaymentStatus.PENDING.name(), payment.getCurrency());
+            }
+            results.add(BulkPaymentResult.builder()
+                .idempotencyKey(key)
+                .orderId(payment.getOrderId())
+                .paymentId(payment.getPaymentId())
+                .status(payment.getStatus())
+                .created(isNew)
+                .build());
+        }
+        
+        log.info("Bulk create: {} new, {} existing", created.size(), requests.size() - created.size());
+        processAfterCommit(created);
+        return results;
+    }
+    
+    /**
+     * Cancel the pending and processing payments of orders that gave up on them,
+     * payments captured before the cancel are flagged for refund
+     * @return every payment of these orders, completed ones keep their status
+     */
+    @Transactional
+    @UseWorkloadPool(WorkloadPool.CREATE)
+    public List<PaymentResponse> cancelPayments(List<String> orderIds, String reason) {
+        String cancelReason = reason != null ? reason : "Cancelled by order";
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<CancelledPayment> cancelled = bulkRepository.cancelByOrderIds(orderIds, cancelReason, now);
+        List<CancelledPayment> toVoid = new ArrayList<>();
+        for (CancelledPayment payment : cancelled) {
+            rollingStats.record(PaymentStatus.CANCELLED.name(), payment.currency());
+            // A PROCESSING payment may already sit at the gateway
+            if (payment.previousStatus() == PaymentStatus.PROCESSING) {
+                toVoid.add(payment);
+            }
+        }
+        log.info("Cancelled {} payments for {} orders", cancelled.size(), orderIds.size());
+        voidAfterCommit(toVoid, cancelReason);
+        
+        List<Payment> captured = bulkRepository.flagCapturedByOrderIds(orderIds, 
+            "Captured before cancellation, refund required: " + cancelReason, now);
+        for (Payment payment : captured) {
+            rollingStats.record(PaymentStatus.REFUND_REQUIRED.name(), payment.getCurrency());
+            eventPublisher.publish(payment, "PAYMENT_REFUND_REQUIRED");
+            log.error("Payment {} of cancelled order {} was already captured, refund required", 
+                payment.getPaymentId(), payment.getOrderId());
+        }
+        
+        List<PaymentResponse> payments = new ArrayList<>();
+        for (Payment payment : bulkRepository.findByOrderIds(orderIds)) {
+            payments.add(PaymentResponse.builder()
+                .paymentId(payment.getPaymentId())
+                .orderId(payment.getOrderId())
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .status(payment.getStatus())
+                .gatewayReference(payment.getGatewayReference())
+                .createdAt(payment.getCreatedAt())
+                .build());
+        }
+        return payments;
+    }
+    
+    /**
+     * Re-submit payments left PENDING, at most what the queue has room for
+     * A payment still queued here is skipped by processPaymentAsync's conditional update
+     */
+    @Scheduled(fixedDelayString = "${payment.bulk.sweep-interval-ms:60000}")
+    @UseWorkloadPool(WorkloadPool.BACKGROUND)
+    public void sweepStalePending() {
+        try {
+            int room = Math.min(sweepBatchSize, processingPool.getQueue().remainingCapacity());
+            if (room == 0) {
+                return;
+            }
+            List<Payment> stale = bulkRepository.findStalePending(LocalDateTime.now().minus(staleAfter), room);
+            if (!stale.isEmpty()) {
+                log.info("Re-submitting {} stale PENDING payments", stale.size());
+                stale.forEach(this::submit);
+            }
+        } catch (Exception e) {
+            log.error("Stale payment sweep failed", e);
+        }
+    }
+    
+    private void processAfterCommit(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                payments.forEach(BulkPaymentService.this::submit);
+            }
+        });
+    }
+    
+    private void submit(Payment payment) {
+        processingPool.execute(WorkloadPoolContext.bind(WorkloadPool.BACKGROUND, () -> {
+            try {
+                paymentService.processPaymentAsync(payment);
+            } catch (Exception e) {
+                // Already marked FAILED and published by processPaymentAsync
+                log.warn("Bulk payment {} failed: {}", payment.getPaymentId(), e.getMessage());
+            }
+        }));
+    }
+    
+    private void voidAfterCommit(List<CancelledPayment> payments, String reason) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (CancelledPayment payment : payments) {
+                    processingPool.execute(WorkloadPoolContext.bind(WorkloadPool.BACKGROUND, () -> {
+                        try {
+                            paymentGatewayClient.voidPayment(GatewayVoidRequest.builder()
+                                .paymentReference(payment.paymentId())
+                                .gatewayReference(payment.gatewayReference())
+                                .reason(reason)
+                                .build());
+                        } catch (Exception e) {
+                            // A late success callback still flags the payment for refund
+                            log.warn("Void of cancelled payment {} failed: {}", 
+                                payment.paymentId(), e.getMessage());
+                        }
+                    }));
+                }
+            }
+        });
+    }
+    
+    private String generatePaymentId() {
+        return "PAY-" + UUID.randomUUID().toString();
+    }
+    
+    /**
+     * Let queued work finish; what is cut off stays PENDING for the next sweep
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        processingPool.shutdown();
+        if (!processingPool.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            List<Runnable> dropped = processingPool.shutdownNow();
+            log.warn("Bulk processing pool did not drain in {}, dropped {} queued tasks", 
+                shutdownTimeout, dropped.size());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.payment.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payment.service.dto.PaymentCallbackRequest;
+import com.payment.service.dto.ReplayStatus;
+import com.payment.service.model.PaymentCallback;
+import com.payment.service.repository.PaymentCallbackRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-applies callbacks left with processed=false
+ *
+ * Callbacks are scanned in keyset batches by id and fanned out to lanes
+ * partitioned by paymentReference, so callbacks of one payment are replayed
+ * in the order they were received while different payments run in parallel.
+ * Lanes run on the BACKGROUND connection pool, so there are never more lanes
+ * than that pool has connections. Throughput is capped by a rate limiter.
+ */
+@Service
+@Slf4j
+public class CallbackReplayService {
+
+    private final PaymentCallbackRepository callbackRepository;
+    private final PaymentCallbackProcessor callbackProcessor;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final RateLimiter rateLimiter;
+    private final ExecutorService[] lanes;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lastCallbackId = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    private final Counter replayedCounter;
+    private final Counter failedCounter;
+
+    public CallbackReplayService(
+            PaymentCallbackRepository callbackRepository,
+            PaymentCallbackProcessor callbackProcessor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${payment.callback.replay.batch-size:500}") int batchSize,
+            @Value("${payment.callback.replay.parallelism:0}") int parallelism,
+            @Value("${payment.datasource.pools.background.maximum-pool-size:8}") int backgroundPoolSize,
+            @Value("${payment.callback.replay.rate-per-second:50}") int ratePerSecond) {
+        this.callbackRepository = callbackRepository;
+        this.callbackProcessor = callbackProcessor;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+
+        this.rateLimiter = RateLimiter.of("callbackReplay", RateLimiterConfig.custom()
+            .limitForPeriod(ratePerSecond)
+            .limitRefreshPeriod(Duration.ofSeconds(1))
+            .timeoutDuration(Duration.ofMinutes(1))
+            .build());
+
+        int laneCount = parallelism > 0 ? Math.min(parallelism, backgroundPoolSize) : backgroundPoolSize;
+        if (laneCount < parallelism) {
+            log.warn("Callback replay parallelism {} capped at the BACKGROUND pool size {}", 
+                parallelism, backgroundPoolSize);
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+
+        this.replayedCounter = meterRegistry.counter("payment.callback.replay", "result", "replayed");
+        this.failedCounter = meterRegistry.counter("payment.callback.replay", "result", "failed");
+        Gauge.builder("payment.callback.replay.scanned", scanned, AtomicLong::get)
+            .register(meterRegistry);
+        Gauge.builder("payment.callback.replay.running", running, r -> r.get() ? 1 : 0)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start a replay in the background
+     * @return false if a replay is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        scanned.set(0);
+        replayed.set(0);
+        failed.set(0);
+        lastCallbackId.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+
+        coordinator.submit(() -> {
+            try {
+                replayAll();
+            } catch (Exception e) {
+                log.error("Callback replay aborted at id: {}", lastCallbackId.get(), e);
+            } finally {
+                finishedAt = LocalDateTime.now();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public ReplayStatus status() {
+        return ReplayStatus.builder()
+            .running(running.get())
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .scanned(scanned.get())
+            .replayed(replayed.get())
+            .failed(failed.get())
+            .lastCallbackId(lastCallbackId.get())
+            .build();
+    }
+
+    private void replayAll() throws InterruptedException {
+        log.info("Starting callback replay");
+
+        while (true) {
+            List<PaymentCallback> batch = callbackRepository
+                .findByProcessedFalseAndIdGreaterThanOrderByIdAsc(
+                    lastCallbackId.get(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Future<?>> futures = new ArrayList<>(batch.size());
+            for (PaymentCallback callback : batch) {
+                if (callback.getPaymentReference() == null) {
+                    // Nothing to apply it to; stays processed=false for manual review
+                    log.warn("Skipping callback without payment reference: {}", callback.getCallbackId());
+                    failed.incrementAndGet();
+                    failedCounter.increment();
+                    continue;
+                }
+                ExecutorService lane = lanes[Math.floorMod(
+                    callback.getPaymentReference().hashCode(), lanes.length)];
+                futures.add(lane.submit(() -> replay(callback)));
+            }
+
+            // Finish the batch before moving the keyset forward
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error("Replay task failed", e.getCause());
+                }
+            }
+
+            scanned.addAndGet(batch.size());
+            lastCallbackId.set(batch.get(batch.size() - 1).getId());
+            log.info("Replay progress: scanned={}, replayed={}, failed={}",
+                scanned.get(), replayed.get(), failed.get());
+        }
+
+        log.info("Callback replay finished: replayed={}, failed={}", replayed.get(), failed.get());
+    }
+
+    private void replay(PaymentCallback callback) {
+        PaymentCallbackRequest original = readPayload(callback);
+        try {
+            rateLimiter.acquirePermission();
+            callbackProcessor.apply(callback,
+                original != null ? original.getTransactionId() : null,
+                original != null ? original.getFailureReason() : null);
+            replayed.incrementAndGet();
+            replayedCounter.increment();
+
+        } catch (Exception e) {
+            // Stays processed=false for the next replay or manual review
+            log.warn("Replay failed for callback: {}: {}", callback.getCallbackId(), e.getMessage());
+            failed.incrementAndGet();
+            failedCounter.increment();
+        }
+    }
+
+    private PaymentCallbackRequest readPayload(PaymentCallback callback) {
+        try {
+            return objectMapper.readValue(callback.getRawPayload(), PaymentCallbackRequest.class);
+        } catch (Exception e) {
+            // Older rows stored toString() output, replay with the stored columns only
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+}
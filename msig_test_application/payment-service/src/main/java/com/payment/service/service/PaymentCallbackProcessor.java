@@ -0,0 +1,120 @@
+package com.payment.service.service;
+
+import com.payment.service.exception.PaymentNotFoundException;
+import com.payment.service.model.Payment;
+import com.payment.service.model.PaymentCallback;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.repository.PaymentCallbackRepository;
+import com.payment.service.repository.PaymentRepository;
+import com.payment.service.stats.RollingStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a stored callback to its payment
+ * Shared by live callbacks and the replay of unprocessed ones
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentCallbackProcessor {
+    
+    private final PaymentRepository paymentRepository;
+    private final PaymentCallbackRepository callbackRepository;
+    private final PaymentEventPublisher eventPublisher;
+    private final RollingStats rollingStats;
+    
+    /**
+     * States each callback status may move a payment out of. A gateway may
+     * still confirm a charge we marked FAILED after a timeout, but a pending
+     * notice never reopens one; CANCELLED, SUCCESS, REFUNDED and
+     * REFUND_REQUIRED are final
+     */
+    private static final Map<PaymentStatus, Set<PaymentStatus>> CALLBACK_PREDECESSORS = Map.of(
+        PaymentStatus.SUCCESS, Set.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.FAILED),
+        PaymentStatus.FAILED, Set.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING),
+        PaymentStatus.PROCESSING, Set.of(PaymentStatus.PENDING));
+    
+    // Only terminal outcomes are published and take an event sequence
+    private static final Map<PaymentStatus, String> EVENT_TYPES = Map.of(
+        PaymentStatus.SUCCESS, "PAYMENT_SUCCESS",
+        PaymentStatus.FAILED, "PAYMENT_FAILED");
+    
+    static final String CAPTURED_AFTER_CANCEL = "Captured after cancellation, refund required";
+    
+    /**
+     * Applied as one conditional UPDATE, so callbacks for the same payment
+     * serialize on the row and a callback never overwrites a final state.
+     * A success for a CANCELLED payment means the gateway captured money for
+     * an order that gave up on it: the payment is flagged REFUND_REQUIRED and
+     * PAYMENT_REFUND_REQUIRED is published instead of dropping it. A pending
+     * or unrecognised gateway status only moves PENDING to PROCESSING and
+     * publishes nothing.
+     */
+    @Transactional
+    public void apply(PaymentCallback callback, String transactionId, String failureReason) {
+        String paymentId = callback.getPaymentReference();
+        PaymentStatus newStatus = mapGatewayStatus(callback.getStatus());
+        LocalDateTime now = LocalDateTime.now();
+        
+        String eventType = EVENT_TYPES.get(newStatus);
+        
+        // Taken in the same UPDATE, so sequences are gap-free and ordered
+        int updated = paymentRepository.transition(paymentId, newStatus, CALLBACK_PREDECESSORS.get(newStatus),
+            transactionId, failureReason, eventType != null ? 1 : 0, now);
+        
+        if (updated == 0) {
+            Payment payment = paymentRepository.findByPaymentId(paymentId)
+                .orElseThrow(() -> new PaymentNotFoundException(paymentId));
+            
+            // Re-checked by the UPDATE, a duplicate capture callback flags only once
+            if (payment.getStatus() == PaymentStatus.CANCELLED && newStatus == PaymentStatus.SUCCESS
+                    && paymentRepository.transition(paymentId, PaymentStatus.REFUND_REQUIRED, 
+                        Set.of(PaymentStatus.CANCELLED), transactionId, CAPTURED_AFTER_CANCEL, 1, now) > 0) {
+                newStatus = PaymentStatus.REFUND_REQUIRED;
+                eventType = "PAYMENT_REFUND_REQUIRED";
+                log.error("Payment {} of order {} captured after cancellation, flagged for refund",
+                    paymentId, payment.getOrderId());
+            } else {
+                log.warn("Payment {} is {}, ignoring {} callback", 
+                    paymentId, payment.getStatus(), newStatus);
+                markProcessed(callback);
+                return;
+            }
+        }
+        
+        Payment payment = paymentRepository.findByPaymentId(paymentId).orElseThrow();
+        rollingStats.record(newStatus.name(), payment.getCurrency());
+        markProcessed(callback);
+        
+        log.info("Payment {} updated to status: {}", paymentId, newStatus);
+        
+        // Publish event to notify other services
+        if (eventType != null) {
+            eventPublisher.publish(payment, eventType);
+        }
+    }
+    
+    private void markProcessed(PaymentCallback callback) {
+        callback.setProcessed(true);
+        callbackRepository.save(callback);
+    }
+    
+    private PaymentStatus mapGatewayStatus(String gatewayStatus) {
+        return switch (gatewayStatus.toUpperCase()) {
+            case "SUCCESS", "COMPLETED" -> PaymentStatus.SUCCESS;
+            case "FAILED", "DECLINED" -> PaymentStatus.FAILED;
+            case "PENDING", "PROCESSING" -> PaymentStatus.PROCESSING;
+            default -> {
+                log.warn("Unknown gateway status: {}, treated as still processing", gatewayStatus);
+                yield PaymentStatus.PROCESSING;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.payment.service.service;
+
+import com.payment.service.event.PaymentEvent;
+import com.payment.service.model.Payment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentEventPublisher {
+    
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    
+    /**
+     * Publish payment event to Kafka
+     * Carries the order and amount so consumers need no lookup by paymentId.
+     * The caller must already have assigned the payment its next eventSequence
+     */
+    public void publish(Payment payment, String eventType) {
+        try {
+            PaymentEvent event = PaymentEvent.builder()
+                .eventId(payment.getPaymentId() + ":" + payment.getEventSequence())
+                .paymentId(payment.getPaymentId())
+                .orderId(payment.getOrderId())
+                .eventType(eventType)
+                .amount(payment.getAmount())
+                .currency(payment.getCurrency())
+                .sequence(payment.getEventSequence())
+                .timestamp(System.currentTimeMillis())
+                .build();
+            
+            kafkaTemplate.send("payment-events", payment.getPaymentId(), event);
+            log.info("Published event: {} for payment: {}, sequence: {}", 
+                eventType, payment.getPaymentId(), payment.getEventSequence());
+            
+        } catch (Exception e) {
+            log.error("Failed to publish event for payment: {}", payment.getPaymentId(), e);
+            // Don't throw - event publishing failure shouldn't fail payment
+        }
+    }
+}
@@ -1,20 +1,24 @@
 package com.payment.service.service;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.payment.service.client.PaymentGatewayClient;
+import com.payment.service.datasource.UseWorkloadPool;
+import com.payment.service.datasource.WorkloadPool;
 import com.payment.service.dto.*;
 import com.payment.service.exception.*;
 import com.payment.service.model.*;
 import com.payment.service.repository.*;
+import com.payment.service.stats.RollingStats;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import com.payment.service.event.PaymentEvent;
 
 @Service
 @Slf4j
@@ -23,14 +27,19 @@ public class PaymentService {
     
     private final PaymentRepository paymentRepository;
     private final PaymentCallbackRepository callbackRepository;
+    private final PaymentQueryRepository paymentQueryRepository;
     private final PaymentGatewayClient gatewayClient;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PaymentCallbackProcessor callbackProcessor;
+    private final PaymentEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final RollingStats rollingStats;
     
     /**
      * Create payment with idempotency
      * CRITICAL: Prevents double charging even if called multiple times
      */
     @Transactional
+    @UseWorkloadPool(WorkloadPool.CREATE)
     public PaymentResponse createPayment(CreatePaymentRequest request) {
         log.info("Creating payment for order: {}, idempotencyKey: {}", 
             request.getOrderId(), request.getIdempotencyKey());
@@ -57,6 +66,7 @@ public class PaymentService {
             .build();
         
         payment = paymentRepository.save(payment);
+        rollingStats.record(PaymentStatus.PENDING.name(), payment.getCurrency());
         log.info("Payment created: {}", payment.getPaymentId());
         
         // Process payment asynchronously (to handle timeouts)
@@ -77,8 +87,12 @@ public class PaymentService {
         log.info("Processing payment: {}", payment.getPaymentId());
         
         try {
-            // Update status to PROCESSING
-            updatePaymentStatus(payment.getPaymentId(), PaymentStatus.PROCESSING);
+            // Update status to PROCESSING, unless it was cancelled while queued
+            if (!updatePaymentStatus(payment.getPaymentId(), PaymentStatus.PROCESSING)) {
+                log.info("Payment {} is no longer pending, not sending it to the gateway", 
+                    payment.getPaymentId());
+                return;
+            }
             
             // Call payment gateway with timeout handling
             GatewayPaymentRequest gatewayRequest = GatewayPaymentRequest.builder()
@@ -90,12 +104,9 @@ public class PaymentService {
             GatewayPaymentResponse gatewayResponse = 
                 gatewayClient.processPayment(gatewayRequest);
             
-            // Update payment with gateway reference
-            Payment updated = paymentRepository.findByPaymentId(payment.getPaymentId())
-                .orElseThrow(() -> new PaymentNotFoundException(payment.getPaymentId()));
-            
-            updated.setGatewayReference(gatewayResponse.getTransactionId());
-            paymentRepository.save(updated);
+            // Update payment with gateway reference, leaving a concurrent cancel in place
+            paymentRepository.setGatewayReference(payment.getPaymentId(), 
+                gatewayResponse.getTransactionId(), LocalDateTime.now());
             
             log.info("Payment sent to gateway: {}, gatewayRef: {}", 
                 payment.getPaymentId(), gatewayResponse.getTransactionId());
@@ -105,11 +116,9 @@ public class PaymentService {
             
         } catch (Exception e) {
             log.error("Payment processing failed: {}", payment.getPaymentId(), e);
-            updatePaymentStatus(payment.getPaymentId(), PaymentStatus.FAILED, 
-                e.getMessage());
-            
-            // Publish failure event
-            publishPaymentEvent(payment.getPaymentId(), "PAYMENT_FAILED");
+            // Publish failure event, unless the payment was cancelled meanwhile
+            updatePaymentStatus(payment.getPaymentId(), PaymentStatus.FAILED, e.getMessage())
+                .ifPresent(failed -> eventPublisher.publish(failed, "PAYMENT_FAILED"));
             
             throw new PaymentProcessingException("Failed to process payment", e);
         }
@@ -118,8 +127,11 @@ public class PaymentService {
     /**
      * Handle callback from payment gateway
      * CRITICAL: Must be idempotent - gateway may send callback multiple times
+     * 
+     * The callback row is committed before it is applied, so a failed
+     * callback stays as processed=false and can be replayed later
      */
-    @Transactional
+    @UseWorkloadPool(WorkloadPool.CALLBACK)
     public void handleCallback(PaymentCallbackRequest request) {
         log.info("Received payment callback: {}, paymentRef: {}", 
             request.getCallbackId(), request.getPaymentReference());
@@ -131,112 +143,66 @@ public class PaymentService {
             return; // Already processed, skip
         }
         
-        // 2. Store callback for audit trail
+        // 2. Store callback for audit trail (own transaction)
         PaymentCallback callback = new PaymentCallback();
         callback.setCallbackId(request.getCallbackId());
         callback.setPaymentReference(request.getPaymentReference());
         callback.setStatus(request.getStatus());
-        callback.setRawPayload(request.toString());
+        callback.setRawPayload(toRawPayload(request));
         callback.setProcessed(false);
         
-        callbackRepository.save(callback);
-        
-        // 3. Lock payment row to prevent concurrent updates
-        Payment payment = paymentRepository
-            .findByPaymentIdWithLock(request.getPaymentReference())
-            .orElseThrow(() -> new PaymentNotFoundException(
-                request.getPaymentReference()));
-        
-        // 4. Check if payment is in valid state for update
-        if (payment.getStatus() == PaymentStatus.SUCCESS || 
-            payment.getStatus() == PaymentStatus.REFUNDED) {
-            log.warn("Payment {} already in terminal state: {}. Ignoring callback.", 
-                payment.getPaymentId(), payment.getStatus());
-            callback.setProcessed(true);
-            callbackRepository.save(callback);
-            return;
-        }
-        
-        // 5. Update payment status based on callback
-        PaymentStatus newStatus = mapGatewayStatus(request.getStatus());
-        payment.setStatus(newStatus);
-        
-        if (request.getTransactionId() != null) {
-            payment.setGatewayReference(request.getTransactionId());
-        }
-        
-        if (request.getFailureReason() != null) {
-            payment.setFailureReason(request.getFailureReason());
-        }
+        callback = callbackRepository.save(callback);
         
-        paymentRepository.save(payment);
-        
-        // 6. Mark callback as processed
-        callback.setProcessed(true);
-        callbackRepository.save(callback);
-        
-        log.info("Payment {} updated to status: {}", 
-            payment.getPaymentId(), newStatus);
-        
-        // 7. Publish event to notify other services
-        String eventType = newStatus == PaymentStatus.SUCCESS ? 
-            "PAYMENT_SUCCESS" : "PAYMENT_FAILED";
-        publishPaymentEvent(payment.getPaymentId(), eventType);
+        // 3. Lock payment, update status, publish event
+        callbackProcessor.apply(callback, 
+            request.getTransactionId(), request.getFailureReason());
     }
     
     /**
-     * Update payment status with optimistic locking
+     * Move a PENDING or PROCESSING payment to status
+     * @return false if it was already completed or cancelled
      */
     @Transactional
-    public void updatePaymentStatus(String paymentId, PaymentStatus status) {
-        updatePaymentStatus(paymentId, status, null);
+    public boolean updatePaymentStatus(String paymentId, PaymentStatus status) {
+        return updatePaymentStatus(paymentId, status, null).isPresent();
     }
     
+    /**
+     * Conditional UPDATE, so a concurrent cancel or callback is never overwritten
+     * @return the updated payment, empty if it was no longer PENDING or PROCESSING
+     */
     @Transactional
-    public void updatePaymentStatus(String paymentId, PaymentStatus status, 
-                                    String failureReason) {
+    public Optional<Payment> updatePaymentStatus(String paymentId, PaymentStatus status, 
+                                                 String failureReason) {
+        // Outcomes are published, so they take the next event sequence
+        boolean outcome = status == PaymentStatus.SUCCESS || status == PaymentStatus.FAILED;
+        int updated = paymentRepository.transition(paymentId, status, PaymentStatus.IN_FLIGHT,
+            null, failureReason, outcome ? 1 : 0, LocalDateTime.now());
+        
         Payment payment = paymentRepository.findByPaymentId(paymentId)
             .orElseThrow(() -> new PaymentNotFoundException(paymentId));
-        
-        payment.setStatus(status);
-        if (failureReason != null) {
-            payment.setFailureReason(failureReason);
+        if (updated == 0) {
+            log.warn("Payment {} is {}, not moving it to {}", paymentId, payment.getStatus(), status);
+            return Optional.empty();
         }
         
-        paymentRepository.save(payment);
-    }
-    
-    /**
-     * Publish payment event to Kafka
-     */
-    private void publishPaymentEvent(String paymentId, String eventType) {
-        try {
-            PaymentEvent event = PaymentEvent.builder()
-                .paymentId(paymentId)
-                .eventType(eventType)
-                .timestamp(System.currentTimeMillis())
-                .build();
-            
-            kafkaTemplate.send("payment-events", paymentId, event);
-            log.info("Published event: {} for payment: {}", eventType, paymentId);
-            
-        } catch (Exception e) {
-            log.error("Failed to publish event for payment: {}", paymentId, e);
-            // Don't throw - event publishing failure shouldn't fail payment
-        }
+        rollingStats.record(status.name(), payment.getCurrency());
+        return Optional.of(payment);
     }
     
     private String generatePaymentId() {
         return "PAY-" + UUID.randomUUID().toString();
     }
     
-    private PaymentStatus mapGatewayStatus(String gatewayStatus) {
-        return switch (gatewayStatus.toUpperCase()) {
-            case "SUCCESS", "COMPLETED" -> PaymentStatus.SUCCESS;
-            case "FAILED", "DECLINED" -> PaymentStatus.FAILED;
-            default -> PaymentStatus.PROCESSING;
-        };
+    private String toRawPayload(PaymentCallbackRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (Exception e) {
+            return request.toString();
+        }
     }
+    
+    @UseWorkloadPool(WorkloadPool.READ)
     public PaymentResponse getPayment(String paymentId) {
         log.debug("Fetching payment: {}", paymentId);
     
@@ -245,6 +211,30 @@ public class PaymentService {
     
         return mapToResponse(payment);
     }
+    
+    /**
+     * List payments newest first using keyset pagination
+     * Fetches one extra row to know whether another page exists
+     */
+    @UseWorkloadPool(WorkloadPool.READ)
+    public PaymentPage findPayments(PaymentQuery query, String after, int limit) {
+        PaymentCursor cursor = after != null ? PaymentCursor.decode(after) : null;
+        
+        List<PaymentSummary> rows = paymentQueryRepository.findPage(query, cursor, limit + 1);
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            PaymentSummary last = rows.get(limit - 1);
+            nextCursor = new PaymentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return PaymentPage.builder()
+            .items(rows)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
     private PaymentResponse mapToResponse(Payment payment) {
         return PaymentResponse.builder()
             .paymentId(payment.getPaymentId())
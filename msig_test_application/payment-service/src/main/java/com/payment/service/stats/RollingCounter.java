@@ -0,0 +1,64 @@
+package com.payment.service.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-second event counts over the last hour, lock-free
+ *
+ * A ring of SLOTS cells per stripe, each cell packing the epoch second it
+ * belongs to (high 32 bits) with the count (low 32 bits). An increment is a
+ * CAS that either bumps the count or claims a stale cell for the current
+ * second, so rolling over never loses or double-counts an event. Threads
+ * are spread over stripes to keep CAS contention down; reads sum across
+ * stripes and ignore cells stamped with another second.
+ */
+final class RollingCounter {
+    
+    static final int SLOTS = 3600;
+    
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+    
+    private final int stripes;
+    private final AtomicLongArray cells;
+    
+    RollingCounter(int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * SLOTS);
+    }
+    
+    void increment(long epochSecond) {
+        int stripe = (int) (Thread.currentThread().threadId() % stripes);
+        int index = stripe * SLOTS + (int) (epochSecond % SLOTS);
+        long stamp = epochSecond << 32;
+        
+        while (true) {
+            long cell = cells.get(index);
+            long cellSecond = cell >>> 32;
+            if (cellSecond > epochSecond) {
+                // The cell was already reused for a newer second, this event is out of every window
+                return;
+            }
+            long next = cellSecond == epochSecond ? cell + 1 : stamp | 1;
+            if (cells.compareAndSet(index, cell, next)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Events in the seconds [toSecond - seconds, toSecond)
+     */
+    long sum(long toSecond, int seconds) {
+        long total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            int base = stripe * SLOTS;
+            for (long second = toSecond - seconds; second < toSecond; second++) {
+                long cell = cells.get(base + (int) (second % SLOTS));
+                if (cell >>> 32 == second) {
+                    total += cell & COUNT_MASK;
+                }
+            }
+        }
+        return total;
+    }
+}
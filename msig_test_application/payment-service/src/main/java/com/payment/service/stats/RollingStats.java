@@ -0,0 +1,140 @@
+package com.payment.service.stats;
+
+import com.payment.service.dto.StatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live payment transition counts for GET /api/stats, kept in memory
+ *
+ * One RollingCounter per (target status, currency). Transitions recorded
+ * inside a transaction are only counted once it commits. Counts are per
+ * instance; the endpoint reports what this instance applied.
+ */
+@Component
+@Slf4j
+public class RollingStats {
+    
+    private static final int[] WINDOWS = {60, 300, 3600};
+    private static final String[] WINDOW_NAMES = {"1m", "5m", "1h"};
+    private static final String OTHER_CURRENCY = "OTHER";
+    
+    private record Key(String transition, String currency) {
+    }
+    
+    private final Map<Key, RollingCounter> counters = new ConcurrentHashMap<>();
+    private final int stripes;
+    private final int maxKeys;
+    
+    public RollingStats(
+            @Value("${payment.stats.stripes:0}") int stripes,
+            @Value("${payment.stats.max-keys:512}") int maxKeys) {
+        this.stripes = stripes > 0 ? stripes : Math.min(8, Runtime.getRuntime().availableProcessors());
+        this.maxKeys = maxKeys;
+    }
+    
+    public void record(String transition, String currency) {
+        record(transition, currency, 1);
+    }
+    
+    public void record(String transition, String currency, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(transition, currency, count);
+                }
+            });
+        } else {
+            increment(transition, currency, count);
+        }
+    }
+    
+    /**
+     * Counts and rates over complete seconds of each window
+     * @param baseTransition denominator of the conversion ratios, e.g. the creation transition
+     */
+    public StatsResponse snapshot(String baseTransition) {
+        long now = Instant.now().getEpochSecond();
+        List<StatsResponse.Window> windows = new ArrayList<>(WINDOWS.length);
+        
+        for (int w = 0; w < WINDOWS.length; w++) {
+            int seconds = WINDOWS[w];
+            List<StatsResponse.TransitionCount> transitions = new ArrayList<>();
+            Map<String, Long> totals = new TreeMap<>();
+            
+            for (Map.Entry<Key, RollingCounter> entry : counters.entrySet()) {
+                long count = entry.getValue().sum(now, seconds);
+                if (count == 0) {
+                    continue;
+                }
+                Key key = entry.getKey();
+                transitions.add(StatsResponse.TransitionCount.builder()
+                    .transition(key.transition())
+                    .currency(key.currency())
+                    .count(count)
+                    .ratePerSecond((double) count / seconds)
+                    .build());
+                totals.merge(key.transition(), count, Long::sum);
+            }
+            
+            Map<String, Double> conversion = new TreeMap<>();
+            long base = totals.getOrDefault(baseTransition, 0L);
+            if (base > 0) {
+                totals.forEach((transition, count) -> {
+                    if (!transition.equals(baseTransition)) {
+                        conversion.put(transition, (double) count / base);
+                    }
+                });
+            }
+            
+            windows.add(StatsResponse.Window.builder()
+                .window(WINDOW_NAMES[w])
+                .seconds(seconds)
+                .totals(totals)
+                .conversion(conversion)
+                .transitions(transitions)
+                .build());
+        }
+        
+        return StatsResponse.builder()
+            .asOf(Instant.ofEpochSecond(now))
+            .baseTransition(baseTransition)
+            .windows(windows)
+            .build();
+    }
+    
+    private void increment(String transition, String currency, int count) {
+        RollingCounter counter = counter(transition, currency);
+        long now = Instant.now().getEpochSecond();
+        for (int i = 0; i < count; i++) {
+            counter.increment(now);
+        }
+    }
+    
+    private RollingCounter counter(String transition, String currency) {
+        Key key = new Key(transition, currency != null ? currency : OTHER_CURRENCY);
+        RollingCounter counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxKeys) {
+            // Bound memory against unexpected currency codes
+            key = new Key(transition, OTHER_CURRENCY);
+        }
+        return counters.computeIfAbsent(key, k -> new RollingCounter(stripes));
+    }
+}
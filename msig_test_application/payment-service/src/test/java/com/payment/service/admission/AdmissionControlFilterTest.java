@@ -0,0 +1,69 @@
+package com.payment.service.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlFilterTest {
+
+    private final AdmissionController admissionController = mock(AdmissionController.class);
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(admissionController, 1, 1);
+
+    private final FilterChain startsAsync = (request, response) -> request.startAsync();
+    private final FilterChain completes = (request, response) -> { };
+
+    @Test
+    void exportsUseTheirOwnLimitAndLeaveControllerSlotsFree() throws Exception {
+        MockHttpServletRequest running = export();
+        filter.doFilter(running, new MockHttpServletResponse(), startsAsync);
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(export(), rejected, completes);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        verify(admissionController, never()).acquire(any());
+
+        when(admissionController.acquire(RequestPriority.CALLBACK)).thenReturn(AdmissionDecision.ADMITTED);
+        MockHttpServletResponse callback = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/payments/callback"), callback, completes);
+        assertThat(callback.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        verify(admissionController).release();
+    }
+
+    @Test
+    void exportSlotIsReleasedWhenTheAsyncResponseCompletes() throws Exception {
+        MockHttpServletRequest running = export();
+        filter.doFilter(running, new MockHttpServletResponse(), startsAsync);
+
+        running.getAsyncContext().complete();
+
+        MockHttpServletResponse next = new MockHttpServletResponse();
+        filter.doFilter(export(), next, completes);
+        assertThat(next.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    }
+
+    @Test
+    void otherReadsStillGoThroughTheController() throws Exception {
+        when(admissionController.acquire(RequestPriority.READ)).thenReturn(AdmissionDecision.SHED_OVERLOAD);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/payments/PAY-1"), response, completes);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+    }
+
+    private static MockHttpServletRequest export() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payments/export");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
@@ -0,0 +1,147 @@
+package com.payment.service.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One slot, 5 ms target, 100 ms interval, on a clock the test moves
+ */
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService waiters = Executors.newCachedThreadPool();
+    private AdmissionController controller;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        controller = new AdmissionController(1, 5, 100, 10_000, 10_000, 10_000, meterRegistry, clock::get);
+        assertThat(controller.acquire(RequestPriority.CALLBACK)).isEqualTo(AdmissionDecision.ADMITTED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        waiters.shutdownNow();
+    }
+
+    @Test
+    void entersDroppingOnlyAfterDelayStaysAboveTargetForAnInterval() throws Exception {
+        handOver(RequestPriority.CREATE, 10);
+        assertThat(dropping()).isZero();
+
+        handOver(RequestPriority.CREATE, 50);
+        assertThat(dropping()).isZero();
+
+        handOver(RequestPriority.CREATE, 60);
+        assertThat(dropping()).isEqualTo(1);
+    }
+
+    @Test
+    void droppingShedsReadsButQueuesCreatesWhileDelayIsWithinInterval() throws Exception {
+        enterDropping(100);
+
+        assertThat(controller.acquire(RequestPriority.READ)).isEqualTo(AdmissionDecision.SHED_OVERLOAD);
+        CompletableFuture<AdmissionDecision> create = queue(RequestPriority.CREATE);
+        controller.release();
+        assertThat(create.get(5, TimeUnit.SECONDS)).isEqualTo(AdmissionDecision.ADMITTED);
+    }
+
+    @Test
+    void droppingShedsCreatesOnceDelayExceedsInterval() throws Exception {
+        enterDropping(150);
+
+        assertThat(controller.acquire(RequestPriority.READ)).isEqualTo(AdmissionDecision.SHED_OVERLOAD);
+        assertThat(controller.acquire(RequestPriority.CREATE)).isEqualTo(AdmissionDecision.SHED_OVERLOAD);
+        assertThat(meterRegistry.counter("payment.admission.shed", "priority", "create", "reason", "overload")
+            .count()).isEqualTo(1);
+    }
+
+    @Test
+    void callbacksAreNeverShedForOverload() throws Exception {
+        enterDropping(150);
+
+        handOver(RequestPriority.CALLBACK, 150);
+        assertThat(dropping()).isEqualTo(1);
+    }
+
+    @Test
+    void leavesDroppingOnFirstAdmissionUnderTarget() throws Exception {
+        enterDropping(150);
+
+        handOver(RequestPriority.CALLBACK, 1);
+        assertThat(dropping()).isZero();
+
+        controller.release();
+        assertThat(controller.acquire(RequestPriority.READ)).isEqualTo(AdmissionDecision.ADMITTED);
+    }
+
+    @Test
+    void gaugesReportSlotsAndQueue() throws Exception {
+        CompletableFuture<AdmissionDecision> waiting = queue(RequestPriority.CREATE);
+
+        assertThat(gauge("payment.admission.in.flight")).isEqualTo(1);
+        assertThat(gauge("payment.admission.queued")).isEqualTo(1);
+
+        controller.release();
+        waiting.get(5, TimeUnit.SECONDS);
+        controller.release();
+        assertThat(gauge("payment.admission.in.flight")).isZero();
+        assertThat(gauge("payment.admission.queued")).isZero();
+    }
+
+    /**
+     * Three hand-overs: 10 ms, then 50 ms, then lastDelayMs past the first, at the interval
+     */
+    private void enterDropping(long lastDelayMs) throws Exception {
+        handOver(RequestPriority.CALLBACK, 10);
+        handOver(RequestPriority.CALLBACK, 50);
+        handOver(RequestPriority.CALLBACK, Math.max(lastDelayMs, 60));
+        assertThat(dropping()).isEqualTo(1);
+    }
+
+    /**
+     * Queue a request behind the held slot, let delayMs pass, then release the slot to it
+     */
+    private void handOver(RequestPriority priority, long delayMs) throws Exception {
+        CompletableFuture<AdmissionDecision> waiting = queue(priority);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(delayMs));
+        controller.release();
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(AdmissionDecision.ADMITTED);
+    }
+
+    private CompletableFuture<AdmissionDecision> queue(RequestPriority priority) throws InterruptedException {
+        double before = gauge("payment.admission.queued");
+        CompletableFuture<AdmissionDecision> decision = CompletableFuture.supplyAsync(() -> {
+            try {
+                return controller.acquire(priority);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, waiters);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("payment.admission.queued") == before && !decision.isDone()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        return decision;
+    }
+
+    private double dropping() {
+        return gauge("payment.admission.dropping");
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
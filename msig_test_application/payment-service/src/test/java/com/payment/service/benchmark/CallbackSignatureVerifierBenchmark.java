@@ -0,0 +1,81 @@
+package com.payment.service.benchmark;
+
+import com.payment.service.security.CallbackSignatureProperties;
+import com.payment.service.security.CallbackSignatureVerifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-thread callback verification throughput
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.payment.service.benchmark.CallbackSignatureVerifierBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallbackSignatureVerifierBenchmark {
+
+    private static final String BODY = """
+        {"callbackId":"CB-7f3c2a10-9d1e-4f7a-a1d4-5b2e6c8d9e01",\
+        "paymentReference":"PAY-0b6f4c52-3a8e-4d1b-9f27-6c1e5a7d8b90",\
+        "status":"SUCCESS","transactionId":"TXN-558201937746","failureReason":null}""";
+
+    private CallbackSignatureVerifier verifier;
+    private byte[] body;
+    private String currentKeySignature;
+    private String previousKeySignature;
+
+    @Setup
+    public void setup() throws Exception {
+        CallbackSignatureProperties properties = new CallbackSignatureProperties();
+        properties.setKeys(List.of(key("current", "current-secret"), key("previous", "previous-secret")));
+        verifier = new CallbackSignatureVerifier(properties);
+
+        body = BODY.getBytes(StandardCharsets.UTF_8);
+        currentKeySignature = sign("current-secret");
+        previousKeySignature = sign("previous-secret");
+    }
+
+    @Benchmark
+    public boolean verifyWithKeyId() {
+        return verifier.verify(body, 0, body.length, currentKeySignature, "current");
+    }
+
+    // Worst case during rotation: no key id and the last key matches
+    @Benchmark
+    public boolean verifyRotatedKey() {
+        return verifier.verify(body, 0, body.length, previousKeySignature, null);
+    }
+
+    private CallbackSignatureProperties.Key key(String id, String secret) {
+        CallbackSignatureProperties.Key key = new CallbackSignatureProperties.Key();
+        key.setId(id);
+        key.setSecret(secret);
+        return key;
+    }
+
+    private String sign(String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CallbackSignatureVerifierBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.payment.service.model;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the Hibernate mapping of the entities offline, the model ddl-auto creates the schema from
+ */
+class PaymentSchemaTest {
+
+    private StandardServiceRegistry registry;
+    private Metadata metadata;
+
+    @BeforeEach
+    void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+            .applySetting("hibernate.dialect", PostgreSQLDialect.class.getName())
+            .applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+            // Spring Boot's default naming: createdAt -> created_at
+            .applySetting("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .build();
+        metadata = new MetadataSources(registry)
+            .addAnnotatedClass(Payment.class)
+            .addAnnotatedClass(PaymentCallback.class)
+            .buildMetadata();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Test
+    void paymentsHaveTheKeysetIndexes() {
+        Map<String, List<String>> indexes = indexes("payments");
+
+        assertThat(indexes)
+            .containsEntry("idx_payment_keyset", List.of("created_at", "id"))
+            .containsEntry("idx_order_keyset", List.of("order_id", "created_at", "id"))
+            .containsEntry("idx_status_keyset", List.of("status", "created_at", "id"))
+            .containsEntry("idx_gateway_ref", List.of("gateway_reference"));
+    }
+
+    @Test
+    void callbacksHaveTheReplayIndex() {
+        assertThat(indexes("payment_callbacks"))
+            .containsEntry("idx_callback_unprocessed", List.of("processed", "id"))
+            .containsEntry("idx_payment_ref", List.of("payment_reference"));
+    }
+
+    private Map<String, List<String>> indexes(String tableName) {
+        Table table = metadata.collectTableMappings().stream()
+            .filter(t -> t.getName().equals(tableName))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("Table not mapped: " + tableName));
+        return table.getIndexes().values().stream()
+            .collect(Collectors.toMap(Index::getName,
+                index -> index.getColumns().stream().map(Column::getName).toList()));
+    }
+}
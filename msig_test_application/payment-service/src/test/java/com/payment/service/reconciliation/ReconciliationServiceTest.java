@@ -0,0 +1,78 @@
+package com.payment.service.reconciliation;
+
+import com.payment.service.exception.InvalidSettlementFileException;
+import com.payment.service.repository.PaymentQueryRepository;
+import com.payment.service.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ReconciliationServiceTest {
+
+    @TempDir
+    Path root;
+
+    private Path inputDir;
+    private ReconciliationService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        inputDir = Files.createDirectories(root.resolve("incoming"));
+        service = new ReconciliationService(mock(PaymentQueryRepository.class), mock(PaymentService.class),
+            inputDir, root.resolve("reports"), 1, 500, 8);
+    }
+
+    @Test
+    void rejectsNamesOutsideTheInputDirectory() throws IOException {
+        Files.writeString(root.resolve("secret.csv"), "gatewayReference,amount,currency,status\n");
+        Files.createSymbolicLink(inputDir.resolve("link.csv"), root.resolve("secret.csv"));
+
+        for (String name : List.of("../secret.csv", root.resolve("secret.csv").toString(), "link.csv",
+                "missing.csv", ".")) {
+            assertThatThrownBy(() -> service.reconcile(name))
+                .as(name)
+                .isInstanceOf(InvalidSettlementFileException.class);
+        }
+    }
+
+    @Test
+    void writesTheReportToTheReportDirectory() throws IOException {
+        Files.writeString(inputDir.resolve("settlement.csv"), "gatewayReference,amount,currency,status\n");
+
+        String report = service.reconcile("settlement.csv").getReport();
+
+        assertThat(Path.of(report)).isEqualTo(root.resolve("reports/settlement.csv.mismatches.csv"));
+        assertThat(inputDir.resolve("settlement.csv.mismatches.csv")).doesNotExist();
+    }
+
+    @Test
+    void oversizedFieldMakesTheRecordMalformed() throws IOException {
+        Path file = inputDir.resolve("long.csv");
+        Files.writeString(file, "gatewayReference,amount,currency,status\n"
+            + "GW-" + "9".repeat(300) + ",10.00,USD,SETTLED\n"
+            + "GW-1,10.00,USD,SETTLED\n");
+
+        List<SettlementRecord> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (SettlementFileReader.Segment segment : SettlementFileReader.split(channel, 1)) {
+                SettlementFileReader.read(channel, segment, records::add);
+            }
+        }
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).gatewayReference()).isNull();
+        assertThat(records.get(1).gatewayReference()).isEqualTo("GW-1");
+    }
+}
@@ -0,0 +1,77 @@
+package com.payment.service.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallbackSignatureVerifierTest {
+
+    private static final byte[] BODY = "{\"paymentId\":\"PAY-1\",\"status\":\"SUCCESS\"}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void enabledWithoutSecretFailsStartup() {
+        assertThatThrownBy(() -> new CallbackSignatureVerifier(properties(true, null)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("primary");
+        assertThatThrownBy(() -> new CallbackSignatureVerifier(properties(true, "  ")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void enabledWithPlaceholderSecretFailsStartup() {
+        assertThatThrownBy(() -> new CallbackSignatureVerifier(properties(true, "change-me")))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void enabledWithoutKeysFailsStartup() {
+        CallbackSignatureProperties properties = new CallbackSignatureProperties();
+        properties.setEnabled(true);
+
+        assertThatThrownBy(() -> new CallbackSignatureVerifier(properties))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void disabledWithoutSecretStartsAndVerifiesNothing() {
+        CallbackSignatureVerifier verifier = new CallbackSignatureVerifier(properties(false, ""));
+
+        assertThat(verifier.verify(BODY, 0, BODY.length, sign("anything"), null)).isFalse();
+    }
+
+    @Test
+    void verifiesWithConfiguredSecret() {
+        CallbackSignatureVerifier verifier = new CallbackSignatureVerifier(properties(true, "s3cr3t-from-env"));
+
+        assertThat(verifier.verify(BODY, 0, BODY.length, sign("s3cr3t-from-env"), "primary")).isTrue();
+        assertThat(verifier.verify(BODY, 0, BODY.length, sign("change-me"), "primary")).isFalse();
+    }
+
+    private static CallbackSignatureProperties properties(boolean enabled, String secret) {
+        CallbackSignatureProperties.Key key = new CallbackSignatureProperties.Key();
+        key.setId("primary");
+        key.setSecret(secret);
+        CallbackSignatureProperties properties = new CallbackSignatureProperties();
+        properties.setEnabled(enabled);
+        properties.setKeys(List.of(key));
+        return properties;
+    }
+
+    private static String sign(String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(BODY));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.payment.service.service;
+
+import com.payment.service.model.Payment;
+import com.payment.service.model.PaymentCallback;
+import com.payment.service.model.PaymentStatus;
+import com.payment.service.repository.PaymentCallbackRepository;
+import com.payment.service.repository.PaymentRepository;
+import com.payment.service.stats.RollingStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentCallbackProcessorTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentCallbackRepository callbackRepository = mock(PaymentCallbackRepository.class);
+    private final PaymentEventPublisher eventPublisher = mock(PaymentEventPublisher.class);
+    private final PaymentCallbackProcessor processor = new PaymentCallbackProcessor(
+        paymentRepository, callbackRepository, eventPublisher, mock(RollingStats.class));
+
+    @Test
+    void successIsPublishedAndTakesASequence() {
+        Payment payment = payment(PaymentStatus.SUCCESS);
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.SUCCESS),
+            eq(Set.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING, PaymentStatus.FAILED)),
+            eq("TX-1"), isNull(), eq(1L), any())).thenReturn(1);
+        when(paymentRepository.findByPaymentId("PAY-1")).thenReturn(Optional.of(payment));
+
+        PaymentCallback callback = callback("COMPLETED");
+        processor.apply(callback, "TX-1", null);
+
+        verify(eventPublisher).publish(payment, "PAYMENT_SUCCESS");
+        assertThat(callback.getProcessed()).isTrue();
+    }
+
+    @Test
+    void declineIsPublishedAsFailedAndCannotReopenAFailure() {
+        Payment payment = payment(PaymentStatus.FAILED);
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.FAILED),
+            eq(Set.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING)),
+            eq("TX-1"), eq("Card declined"), eq(1L), any())).thenReturn(1);
+        when(paymentRepository.findByPaymentId("PAY-1")).thenReturn(Optional.of(payment));
+
+        processor.apply(callback("DECLINED"), "TX-1", "Card declined");
+
+        verify(eventPublisher).publish(payment, "PAYMENT_FAILED");
+    }
+
+    @Test
+    void pendingNoticeMovesOnlyPendingAndPublishesNothing() {
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.PROCESSING),
+            eq(Set.of(PaymentStatus.PENDING)), eq("TX-1"), isNull(), eq(0L), any())).thenReturn(1);
+        when(paymentRepository.findByPaymentId("PAY-1")).thenReturn(Optional.of(payment(PaymentStatus.PROCESSING)));
+
+        PaymentCallback callback = callback("PENDING");
+        processor.apply(callback, "TX-1", null);
+
+        verify(eventPublisher, never()).publish(any(), anyString());
+        assertThat(callback.getProcessed()).isTrue();
+    }
+
+    @Test
+    void unknownStatusOnAFailedPaymentChangesNothing() {
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.PROCESSING),
+            eq(Set.of(PaymentStatus.PENDING)), any(), any(), anyLong(), any())).thenReturn(0);
+        when(paymentRepository.findByPaymentId("PAY-1")).thenReturn(Optional.of(payment(PaymentStatus.FAILED)));
+
+        PaymentCallback callback = callback("ON_HOLD");
+        processor.apply(callback, "TX-1", null);
+
+        verify(eventPublisher, never()).publish(any(), anyString());
+        assertThat(callback.getProcessed()).isTrue();
+    }
+
+    @Test
+    void successOnACancelledPaymentFlagsItForRefund() {
+        Payment payment = payment(PaymentStatus.CANCELLED);
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.SUCCESS), any(), any(), any(), eq(1L), any()))
+            .thenReturn(0);
+        when(paymentRepository.transition(eq("PAY-1"), eq(PaymentStatus.REFUND_REQUIRED),
+            eq(Set.of(PaymentStatus.CANCELLED)), eq("TX-1"), eq(PaymentCallbackProcessor.CAPTURED_AFTER_CANCEL),
+            eq(1L), any())).thenReturn(1);
+        when(paymentRepository.findByPaymentId("PAY-1")).thenReturn(Optional.of(payment));
+
+        processor.apply(callback("SUCCESS"), "TX-1", null);
+
+        verify(eventPublisher).publish(payment, "PAYMENT_REFUND_REQUIRED");
+    }
+
+    private static PaymentCallback callback(String status) {
+        PaymentCallback callback = new PaymentCallback();
+        callback.setCallbackId("CB-1");
+        callback.setPaymentReference("PAY-1");
+        callback.setStatus(status);
+        callback.setProcessed(false);
+        return callback;
+    }
+
+    private static Payment payment(PaymentStatus status) {
+        return Payment.builder()
+            .paymentId("PAY-1")
+            .orderId("ORD-1")
+            .currency("USD")
+            .status(status)
+            .eventSequence(1L)
+            .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.payment.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingCounterTest {
+
+    private static final long NOW = 1_700_000_000L;
+
+    @Test
+    void sumsOnlyTheSecondsInTheWindow() {
+        RollingCounter counter = new RollingCounter(1);
+        counter.increment(NOW - 61);
+        counter.increment(NOW - 60);
+        counter.increment(NOW - 1);
+        counter.increment(NOW - 1);
+        counter.increment(NOW);
+
+        assertThat(counter.sum(NOW, 1)).isEqualTo(2);
+        assertThat(counter.sum(NOW, 60)).isEqualTo(3);
+        assertThat(counter.sum(NOW, 61)).isEqualTo(4);
+        assertThat(counter.sum(NOW + 1, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void reusedSlotStartsFromZero() {
+        RollingCounter counter = new RollingCounter(1);
+        long old = NOW - RollingCounter.SLOTS;
+        counter.increment(old);
+        counter.increment(old);
+
+        counter.increment(NOW);
+
+        assertThat(counter.sum(NOW + 1, 1)).isEqualTo(1);
+        assertThat(counter.sum(old + 1, 1)).isZero();
+    }
+
+    @Test
+    void dropsEventsForASecondWhoseSlotWasReused() {
+        RollingCounter counter = new RollingCounter(1);
+        counter.increment(NOW);
+
+        counter.increment(NOW - RollingCounter.SLOTS);
+
+        assertThat(counter.sum(NOW + 1, 1)).isEqualTo(1);
+        assertThat(counter.sum(NOW + 1, RollingCounter.SLOTS)).isEqualTo(1);
+    }
+
+    @Test
+    void hourWindowCoversEverySlot() {
+        RollingCounter counter = new RollingCounter(1);
+        for (long second = NOW - RollingCounter.SLOTS; second < NOW; second++) {
+            counter.increment(second);
+        }
+
+        assertThat(counter.sum(NOW, RollingCounter.SLOTS)).isEqualTo(RollingCounter.SLOTS);
+        assertThat(counter.sum(NOW, 300)).isEqualTo(300);
+    }
+
+    @Test
+    void concurrentIncrementsAcrossStripesAreAllCounted() throws InterruptedException {
+        RollingCounter counter = new RollingCounter(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment(NOW - (i % 10));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(counter.sum(NOW + 1, 10)).isEqualTo(80_000);
+        assertThat(counter.sum(NOW + 1, 1)).isEqualTo(8_000);
+    }
+}